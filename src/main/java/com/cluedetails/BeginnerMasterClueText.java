@@ -25,6 +25,7 @@
 package com.cluedetails;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import net.runelite.client.util.Text;
 
@@ -242,37 +243,30 @@ public class BeginnerMasterClueText
 		put("I really need some leather chaps.", BeginnerMasterClueText.BEGINNER_CHARLIE_7);
 	}};
 
+	private static final DialogueMatcher<String> charlieTaskMatcher = new DialogueMatcher<>(charlieTaskToClueText);
+	private static final DialogueMatcher<String> faloLyricMatcher = new DialogueMatcher<>(getFaloLyricsByText());
+
 	public BeginnerMasterClueText()
 	{
 	}
 
-	public static String forTaskGetClueText(String rawText)
+	private static Map<String, String> getFaloLyricsByText()
 	{
-		final String text = Text.sanitizeMultilineText(rawText).toLowerCase();
-
-		for (Map.Entry<String, String> entry : charlieTaskToClueText.entrySet())
+		Map<String, String> lyrics = new LinkedHashMap<>();
+		for (String lyric : FALO_LYRICS)
 		{
-			if (text.contains(entry.getKey().toLowerCase()))
-			{
-				return entry.getValue();
-			}
+			lyrics.put(lyric, lyric);
 		}
+		return lyrics;
+	}
 
-		return null;
+	public static String forTaskGetClueText(String rawText)
+	{
+		return charlieTaskMatcher.find(Text.sanitizeMultilineText(rawText));
 	}
 
 	public static String forLyricsGetClueText(String rawText)
 	{
-		final String text = Text.sanitizeMultilineText(rawText).toLowerCase();
-
-		for (String lyric : FALO_LYRICS)
-		{
-			if (text.contains(lyric.toLowerCase()))
-			{
-				return lyric;
-			}
-		}
-
-		return null;
+		return faloLyricMatcher.find(Text.sanitizeMultilineText(rawText));
 	}
 }
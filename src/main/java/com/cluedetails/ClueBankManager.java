@@ -26,8 +26,9 @@ package com.cluedetails;
 
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import net.runelite.api.Item;
 import net.runelite.api.ItemContainer;
@@ -37,47 +38,75 @@ public class ClueBankManager
 {
 	private final ClueDetailsPlugin clueDetailsPlugin;
 	private final ClueBankSaveDataManager clueBankSaveDataManager;
+	private final ClueSaveExecutor clueSaveExecutor;
 
-	Item[] lastBankItems;
+	// Each tracked clue ID is given a bit, in the order of this array, so which are in the bank fits in one mask
+	private static final int[] TRACKED_IDS = Clues.getTrackedClueAndTornClueIds(true).stream()
+		.mapToInt(Integer::intValue)
+		.toArray();
+
+	private long lastBankPresence;
+	private boolean bankSeen;
 
 	private final Map<Integer, ClueInstance> cluesInBank = new HashMap<>();
 
 	private final Map<Integer, ClueInstance> cluesGoneFromInventory = new HashMap<>();
 
 	@Inject
-	public ClueBankManager(ClueDetailsPlugin clueDetailsPlugin, ClueBankSaveDataManager clueBankSaveDataManager)
+	public ClueBankManager(ClueDetailsPlugin clueDetailsPlugin, ClueBankSaveDataManager clueBankSaveDataManager,
+		ClueSaveExecutor clueSaveExecutor)
 	{
 		this.clueDetailsPlugin = clueDetailsPlugin;
 		this.clueBankSaveDataManager = clueBankSaveDataManager;
+		this.clueSaveExecutor = clueSaveExecutor;
 	}
 
 	public void handleBankChange(ItemContainer bankContainer)
 	{
-		if (lastBankItems == null)
+		long bankPresence = getTrackedPresence(bankContainer.getItems());
+		if (!bankSeen)
 		{
-			lastBankItems = bankContainer.getItems();
+			bankSeen = true;
+			lastBankPresence = bankPresence;
 			return;
 		}
 
-		for (Integer trackedClueId : Clues.getTrackedClueAndTornClueIds(true))
+		long deposited = bankPresence & ~lastBankPresence;
+		long taken = lastBankPresence & ~bankPresence;
+		for (int i = 0; i < TRACKED_IDS.length; i++)
 		{
-			if (bankContainer.contains(trackedClueId))
+			if ((deposited & (1L << i)) != 0)
 			{
-				handleClueDeposited(trackedClueId);
+				handleClueDeposited(TRACKED_IDS[i]);
 			}
-			else
+			else if ((taken & (1L << i)) != 0)
 			{
-				handleClueTaken(trackedClueId);
+				handleClueTaken(TRACKED_IDS[i]);
 			}
 		}
-		lastBankItems = bankContainer.getItems();
+		lastBankPresence = bankPresence;
 	}
 
-	private void handleClueDeposited(int trackedClueId)
+	private static long getTrackedPresence(Item[] items)
 	{
-		// Bank didn't contain it, and still doesn't. Return.
-		if (Arrays.stream(lastBankItems).anyMatch((item) -> item.getId() == trackedClueId)) return;
+		long presence = 0;
+		for (Item item : items)
+		{
+			int itemId = item.getId();
+			for (int i = 0; i < TRACKED_IDS.length; i++)
+			{
+				if (TRACKED_IDS[i] == itemId)
+				{
+					presence |= 1L << i;
+					break;
+				}
+			}
+		}
+		return presence;
+	}
 
+	private void handleClueDeposited(int trackedClueId)
+	{
 		if (!cluesGoneFromInventory.containsKey(trackedClueId)) return;
 
 		ClueInstance clue = cluesGoneFromInventory.get(trackedClueId);
@@ -88,9 +117,6 @@ public class ClueBankManager
 
 	private void handleClueTaken(int trackedClueId)
 	{
-		// Bank did contain it, and still does. Return.
-		if (Arrays.stream(lastBankItems).noneMatch((item) -> item.getId() == trackedClueId)) return;
-
 		// Inventory updates before bank.
 		ClueInstance clueFromBank = cluesInBank.get(trackedClueId);
 		if (clueFromBank == null) return;
@@ -109,11 +135,17 @@ public class ClueBankManager
 
 	public void saveStateToConfig()
 	{
-		clueBankSaveDataManager.saveStateToConfig(cluesInBank);
+		List<ClueInstanceData> bankData = new ArrayList<>();
+		for (ClueInstance clueInstance : cluesInBank.values())
+		{
+			bankData.add(new ClueInstanceData(clueInstance));
+		}
+		clueSaveExecutor.saveBankClues(bankData);
 	}
 
 	public void loadStateFromConfig()
 	{
+		clueSaveExecutor.awaitPendingSaves();
 		cluesInBank.clear();
 		cluesGoneFromInventory.clear();
 		cluesInBank.putAll(clueBankSaveDataManager.loadStateFromConfig());
@@ -24,17 +24,15 @@
  */
 package com.cluedetails;
 
-import com.google.gson.Gson;
-import com.google.gson.reflect.TypeToken;
-import java.lang.reflect.Type;
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
 import net.runelite.client.config.ConfigManager;
 
+@Slf4j
 @Singleton
 public class ClueBankSaveDataManager
 {
@@ -43,66 +41,42 @@ public class ClueBankSaveDataManager
 	private static final String CONFIG_GROUP = "clue-details";
 	private static final String BANK_CLUES_KEY = "bank-clues";
 
-	private final Gson gson;
-	private final List<ClueInstanceData> clueInstanceData = new ArrayList<>();
+	private final ClueInstanceCodec clueInstanceCodec;
 
 	@Inject
-	public ClueBankSaveDataManager(ConfigManager configManager, Gson gson)
+	public ClueBankSaveDataManager(ConfigManager configManager, ClueInstanceCodec clueInstanceCodec)
 	{
 		this.configManager = configManager;
-		this.gson = gson;
+		this.clueInstanceCodec = clueInstanceCodec;
 	}
 
-	public void saveStateToConfig(Map<Integer, ClueInstance> bankClues)
+	public void saveStateToConfig(List<ClueInstanceData> bankClues)
 	{
-		// Serialize groundClues save to config
-		updateData(bankClues);
-		String bankCluesData = gson.toJson(clueInstanceData);
+		// Serialize bankClues save to config
+		String bankCluesData = clueInstanceCodec.encode(bankClues);
 		configManager.setConfiguration(CONFIG_GROUP, BANK_CLUES_KEY, bankCluesData);
 	}
 
-	private void updateData(Map<Integer, ClueInstance> bankClues)
-	{
-		List<ClueInstanceData> newData = new ArrayList<>();
-		for (Map.Entry<Integer, ClueInstance> entry : bankClues.entrySet())
-		{
-			ClueInstance data = entry.getValue();
-			newData.add(new ClueInstanceData(data));
-		}
-		clueInstanceData.clear();
-		clueInstanceData.addAll(newData);
-	}
-
 	public Map<Integer, ClueInstance> loadStateFromConfig()
 	{
-		String groundCluesJson = configManager.getConfiguration(CONFIG_GROUP, BANK_CLUES_KEY);
-		clueInstanceData.clear();
+		String bankCluesData = configManager.getConfiguration(CONFIG_GROUP, BANK_CLUES_KEY);
 
 		Map<Integer, ClueInstance> bankClues = new HashMap<>();
-		if (groundCluesJson != null)
+		if (bankCluesData != null)
 		{
 			try
 			{
-				Type groundCluesType = new TypeToken<List<ClueInstanceData>>()
+				// Convert ClueInstanceData back to ClueInstance as each is read
+				int skipped = clueInstanceCodec.decode(bankCluesData,
+					clueData -> bankClues.put(clueData.getItemId(), new ClueInstance(clueData)));
+				if (skipped > 0)
 				{
-				}.getType();
-
-				List<ClueInstanceData> loadedGroundCluesData = gson.fromJson(groundCluesJson, groundCluesType);
-
-				// Convert ClueInstanceData back to ClueInstance
-				for (ClueInstanceData clueData : loadedGroundCluesData)
-				{
-					clueInstanceData.add(clueData);
-
-					Integer itemId = clueData.getItemId();
-					ClueInstance clue = new ClueInstance(clueData);
-
-					bankClues.put(itemId, clue);
+					log.warn("Skipped {} saved bank clues which couldn't be read", skipped);
 				}
-			} catch (Exception err)
+			}
+			catch (IllegalArgumentException err)
 			{
-				bankClues.clear();
-				saveStateToConfig(bankClues);
+				log.warn("Saved bank clues couldn't be read", err);
 			}
 		}
 
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2025, Zoinkwiz <https://github.com/Zoinkwiz>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cluedetails;
+
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Min-heap of tracked clues keyed by the despawn tick they had when scheduled.
+ * Entries are never removed eagerly: a clue whose despawn tick moved, or which stopped being
+ * tracked, is checked again when its entry comes due. A clue already scheduled at its current
+ * despawn tick isn't added again, so re-adding clues doesn't grow the heap.
+ */
+class ClueDespawnQueue
+{
+	private final PriorityQueue<Entry> queue = new PriorityQueue<>(Comparator.comparingInt(e -> e.despawnTick));
+	// The despawn tick of each clue's latest entry. Older entries for a clue are dropped when they come due
+	private final Map<ClueInstance, Integer> scheduledTicks = new IdentityHashMap<>();
+
+	void schedule(ClueInstance clueInstance)
+	{
+		int despawnTick = clueInstance.getDespawnTick();
+		Integer scheduledTick = scheduledTicks.put(clueInstance, despawnTick);
+		if (scheduledTick != null && scheduledTick == despawnTick)
+		{
+			return;
+		}
+		queue.add(new Entry(despawnTick, clueInstance));
+	}
+
+	/**
+	 * Takes the next clue scheduled to despawn at or before the given tick, or null if none are due.
+	 */
+	ClueInstance pollDue(int tick)
+	{
+		Entry next;
+		while ((next = queue.peek()) != null && next.despawnTick <= tick)
+		{
+			queue.poll();
+			Integer scheduledTick = scheduledTicks.get(next.clueInstance);
+			// Superseded by an entry at the clue's newer despawn tick
+			if (scheduledTick == null || scheduledTick != next.despawnTick) continue;
+
+			scheduledTicks.remove(next.clueInstance);
+			return next.clueInstance;
+		}
+		return null;
+	}
+
+	void clear()
+	{
+		queue.clear();
+		scheduledTicks.clear();
+	}
+
+	private static class Entry
+	{
+		private final int despawnTick;
+		private final ClueInstance clueInstance;
+
+		private Entry(int despawnTick, ClueInstance clueInstance)
+		{
+			this.despawnTick = despawnTick;
+			this.clueInstance = clueInstance;
+		}
+	}
+}
@@ -691,6 +691,32 @@ public interface ClueDetailsConfig extends Config
 		return false;
 	}
 
+	@ConfigItem(
+		keyName = "maxTrackedGroundClues",
+		name = "Max tracked ground clues",
+		description = "Most ground clues to remember. When exceeded, clues on the tiles seen longest ago are forgotten." +
+			"<br> Set to 0 for no limit.",
+		section = groundCluesSection,
+		position = 11
+	)
+	default int maxTrackedGroundClues()
+	{
+		return 0;
+	}
+
+	@ConfigItem(
+		keyName = "maxTrackedGroundTiles",
+		name = "Max tracked ground tiles",
+		description = "Most tiles to remember ground clues on. When exceeded, the tiles seen longest ago are forgotten." +
+			"<br> Set to 0 for no limit.",
+		section = groundCluesSection,
+		position = 12
+	)
+	default int maxTrackedGroundTiles()
+	{
+		return 0;
+	}
+
 	@ConfigSection(name = "Tier Toggles", description = "Options to enable particular clue tiers", position = 7)
 	String tierTogglesSection = "Tier Toggles";
 
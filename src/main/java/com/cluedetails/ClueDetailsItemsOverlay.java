@@ -32,7 +32,6 @@ import java.awt.Graphics2D;
 import java.awt.Image;
 import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
-import java.util.List;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import net.runelite.api.Client;
@@ -56,13 +55,15 @@ public class ClueDetailsItemsOverlay extends WidgetItemOverlay
 	private final ClueDetailsConfig config;
 	private final ConfigManager configManager;
 	private final ClueInventoryManager clueInventoryManager;
+	private final CluePreferenceManager cluePreferenceManager;
 	private final ItemManager itemManager;
 	private final Cache<Long, Image> fillCache;
 	private final Cache<Integer, Clues> clueCache;
 
 	@Inject
 	public ClueDetailsItemsOverlay(Client client, ClueDetailsPlugin clueDetailsPlugin, ClueDetailsConfig config,
-	                               ConfigManager configManager, ItemManager itemManager, ClueInventoryManager clueInventoryManager)
+	                               ConfigManager configManager, ItemManager itemManager, ClueInventoryManager clueInventoryManager,
+	                               CluePreferenceManager cluePreferenceManager)
 	{
 		this.clueDetailsPlugin = clueDetailsPlugin;
 		this.itemManager = itemManager;
@@ -70,6 +71,7 @@ public class ClueDetailsItemsOverlay extends WidgetItemOverlay
 		this.config = config;
 		this.configManager = configManager;
 		this.clueInventoryManager = clueInventoryManager;
+		this.cluePreferenceManager = cluePreferenceManager;
 		showOnBank();
 		showOnEquipment();
 		showOnInventory();
@@ -141,14 +143,10 @@ public class ClueDetailsItemsOverlay extends WidgetItemOverlay
 
 	private void cacheClueItems(Clues clue)
 	{
-		List<Integer> highlightItems = clue.getItems(clueDetailsPlugin, configManager);
-
-		if (highlightItems == null)
+		for (int item : cluePreferenceManager.getItemIds(clue.getClueID()))
 		{
-			return;
+			clueCache.put(item, clue);
 		}
-
-		highlightItems.forEach(item -> clueCache.put(item, clue));
 	}
 
 	@Override
@@ -50,6 +50,7 @@ import net.runelite.api.Player;
 import net.runelite.api.Point;
 import net.runelite.api.Tile;
 import net.runelite.api.TileItem;
+import net.runelite.api.WorldView;
 import net.runelite.api.coords.LocalPoint;
 import net.runelite.api.coords.WorldPoint;
 import net.runelite.api.events.ClientTick;
@@ -510,12 +511,23 @@ public class ClueDetailsOverlay extends OverlayPanel
 		MenuEntry menuEntry = entry.getMenuEntry();
 		int sceneX = menuEntry.getParam0();
 		int sceneY = menuEntry.getParam1();
-		int wv = menuEntry.getWorldViewId();
-		LocalPoint itemLp = new LocalPoint(sceneX * SCENE_TO_LOCAL, sceneY * SCENE_TO_LOCAL, wv);
-		WorldPoint itemWp = WorldPoint.fromLocal(client, itemLp);
-		List<ClueInstance> trackedClues = new ArrayList<>(clueGroundManager.getAllGroundCluesOnWp(itemWp));
+		WorldView worldView = client.getWorldView(menuEntry.getWorldViewId());
+		if (worldView == null) return null;
+
+		// Look the tile up by its coordinates directly, rather than building a WorldPoint for it
+		SortedSet<ClueInstance> trackedClues = clueGroundManager.getAllGroundCluesOnWp(
+			worldView.getBaseX() + sceneX, worldView.getBaseY() + sceneY, worldView.getPlane());
 		if (trackedClues.size() <= entry.getPosOnTile()) return null;
-		return trackedClues.get(entry.getPosOnTile());
+
+		int pos = 0;
+		for (ClueInstance clueInstance : trackedClues)
+		{
+			if (pos++ == entry.getPosOnTile())
+			{
+				return clueInstance;
+			}
+		}
+		return null;
 	}
 
 	private String getTrackedClueText(MenuEntryAndPos entry, boolean showColor, boolean isFloorText)
@@ -64,6 +64,7 @@ import net.runelite.client.Notifier;
 import net.runelite.client.chat.ChatMessageManager;
 import net.runelite.client.events.ClientShutdown;
 import net.runelite.client.events.PluginMessage;
+import net.runelite.client.events.ProfileChanged;
 import net.runelite.client.game.chatbox.ChatboxItemSearch;
 import net.runelite.client.game.chatbox.ChatboxPanelManager;
 import net.runelite.client.callback.ClientThread;
@@ -178,6 +179,9 @@ public class ClueDetailsPlugin extends Plugin
 	@Inject
 	private ClueThreeStepSaver clueThreeStepSaver;
 
+	@Inject
+	private ClueSaveExecutor clueSaveExecutor;
+
 	@Getter
 	@Inject
 	private ChatMessageManager chatMessageManager;
@@ -216,12 +220,17 @@ public class ClueDetailsPlugin extends Plugin
 	@Override
 	protected void startUp() throws Exception
 	{
+		long start = System.nanoTime();
 		startUpOverlays();
 
 		clueThreeStepSaver.startUp();
+		clueSaveExecutor.startUp();
 		clueGroundManager.startUp();
 
-		Clues.rebuildFilteredCluesCache();
+		Clues.updateEnabledTiers();
+		// Custom text, colours and preferences may have changed while the plugin was off
+		Clues.clearDetailOverrides();
+		cluePreferenceManager.invalidateAll();
 
 		final BufferedImage icon = ImageUtil.loadImageResource(getClass(), "/icon.png");
 
@@ -237,6 +246,8 @@ public class ClueDetailsPlugin extends Plugin
 		{
 			clientToolbar.addNavigation(navButton);
 		}
+
+		log.debug("Started up in {}ms", (System.nanoTime() - start) / 1_000_000);
 	}
 
 	@Override
@@ -250,6 +261,7 @@ public class ClueDetailsPlugin extends Plugin
 
 		clueGroundManager.saveStateToConfig();
 		clueBankManager.saveStateToConfig();
+		clueSaveExecutor.shutDown();
 
 		for (ClueGroundTimer timer : clueGroundTimers)
 		{
@@ -317,6 +329,8 @@ public class ClueDetailsPlugin extends Plugin
 		if (event.getContainerId() == InventoryID.INVENTORY.getId())
 		{
 			itemsOverlay.invalidateCache();
+			// Ground events from this tick decide whether a removed clue was dropped or an added one picked up
+			clueGroundManager.processGroundItemEvents();
 			clueInventoryManager.updateInventory(event.getItemContainer());
 			clueThreeStepSaver.scanInventory();
 		}
@@ -411,6 +425,8 @@ public class ClueDetailsPlugin extends Plugin
 	@Subscribe
 	public void onGameStateChanged(GameStateChanged event)
 	{
+		clueGroundManager.onGameStateChanged(event.getGameState());
+
 		if (event.getGameState() == GameState.LOGIN_SCREEN)
 		{
 			clueGroundManager.saveStateToConfig();
@@ -435,6 +451,23 @@ public class ClueDetailsPlugin extends Plugin
 		profileChanged = true;
 	}
 
+	@Subscribe
+	public void onProfileChanged(ProfileChanged event)
+	{
+		Clues.clearDetailOverrides();
+		cluePreferenceManager.invalidateAll();
+
+		clientThread.invokeLater(() ->
+		{
+			// Saves are tied to the profile the clues came from, so those for the old profile never reach the new one
+			clueGroundManager.saveStateToConfig();
+			clueBankManager.saveStateToConfig();
+			clueSaveExecutor.useActiveProfile();
+			clueGroundManager.loadStateFromConfig();
+			clueBankManager.loadStateFromConfig();
+		});
+	}
+
 	@Subscribe
 	public void onClientTick(ClientTick event)
 	{
@@ -488,6 +521,7 @@ public class ClueDetailsPlugin extends Plugin
 	   Player enters from outside 3 zones distance to 3 or closer (teleport in, run in)
 	   Player turns on plugin (and seems onItemSpawned is called for all existing items in scene, including
 	     ones outside the 3 zone limit which're rendered
+	   Spawns from a scene load are skipped, and the loaded scene is scanned once instead
 	 */
 	@Subscribe
 	public void onItemSpawned(ItemSpawned event)
@@ -519,6 +553,14 @@ public class ClueDetailsPlugin extends Plugin
 	@Subscribe
 	public void onConfigChanged(ConfigChanged event)
 	{
+		// Saved clues are written under the plugin's group, a key per region, from the save thread. Nothing shown
+		// depends on them, so don't refresh the panel for each one
+		if (event.getGroup().equals(ClueDetailsConfig.class.getAnnotation(ConfigGroup.class).value())
+			&& (event.getKey().startsWith("ground-clues") || event.getKey().equals("bank-clues")))
+		{
+			return;
+		}
+
 		if (event.getGroup().equals("clue-details-highlights"))
 		{
 			infoOverlay.refreshHighlights();
@@ -531,10 +573,20 @@ public class ClueDetailsPlugin extends Plugin
 			|| event.getKey().equals("eliteDetails")
 			|| event.getKey().equals("masterDetails"))
 		{
-			Clues.rebuildFilteredCluesCache();
+			Clues.updateEnabledTiers();
 			clueInventoryManager.updateLastInventoryRefreshTime();
 		}
 
+		if (event.getGroup().equals(Clues.DETAIL_TEXT_GROUP) || event.getGroup().equals(Clues.DETAIL_COLOR_GROUP))
+		{
+			Clues.updateDetailOverride(event.getGroup(), event.getKey(), event.getNewValue());
+		}
+
+		if (event.getGroup().equals(ClueDetailsConfig.CLUE_ITEMS_CONFIG) || event.getGroup().equals(ClueDetailsConfig.CLUE_WIDGETS_CONFIG))
+		{
+			cluePreferenceManager.invalidate(event.getGroup(), event.getKey());
+		}
+
 		if (event.getGroup().equals("clue-details-color")
 			|| event.getGroup().equals("clue-details-items")
 			|| event.getKey().equals("highlightInventoryClueScrolls")
@@ -580,11 +632,21 @@ public class ClueDetailsPlugin extends Plugin
 			}
 		}
 
+		if ("collapseGroundClues".equals(event.getKey()) || "collapseGroundCluesByTier".equals(event.getKey()))
+		{
+			clueGroundManager.invalidateClueQuantities();
+		}
+
 		// Reset clueGroundTimers when showGroundClueTimers toggled off
 		if ("showGroundClueTimers".equals(event.getKey()) && "false".equals(event.getNewValue()))
 		{
 			resetClueGroundTimers();
 		}
+		// Timers cover clues in every region, not only those read so far
+		if ("showGroundClueTimers".equals(event.getKey()) && "true".equals(event.getNewValue()))
+		{
+			clientThread.invokeLater(clueGroundManager::loadAllSavedRegions);
+		}
 
 		panel.refresh();
 	}
@@ -594,6 +656,8 @@ public class ClueDetailsPlugin extends Plugin
 	{
 		clueGroundManager.saveStateToConfig();
 		clueBankManager.saveStateToConfig();
+		// Saves are written in the background, so the client needs to wait for them before closing
+		event.waitFor(clueSaveExecutor.flush());
 	}
 
 	@Provides
@@ -0,0 +1,288 @@
+/*
+ * Copyright (c) 2025, Zoinkwiz <https://github.com/Zoinkwiz>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cluedetails;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.client.RuneLite;
+
+/**
+ * An append-only file of ground clue changes, so that clues seen since the last save survive the client crashing.
+ * <p>
+ * Each line holds a map region ID and that region's clues at the time, encoded by {@link ClueInstanceCodec}, so a
+ * later line for a region replaces any earlier one. Once enough has been appended the file is rewritten as a
+ * snapshot of the regions loaded. Regions left out of it are as saved in the config. Once a save is written the
+ * journal is cleared, so only changes which never got saved are replayed.
+ * <p>
+ * Each config profile has its own journal, locked by the client using it. A second client on the same profile
+ * doesn't journal, rather than overwrite the first's changes.
+ * <p>
+ * Writes are made from the save thread, and reads only once pending saves are written. Both are given the profile
+ * the clues were loaded from, as the active profile may have changed since.
+ */
+@Slf4j
+@Singleton
+public class ClueGroundJournal
+{
+	private static final Path JOURNAL_DIR = RuneLite.RUNELITE_DIR.toPath().resolve("clue-details");
+	// Appending past this many bytes rewrites the journal as a snapshot
+	private static final long COMPACT_AFTER_BYTES = 256 * 1024;
+
+	private final ClueInstanceCodec clueInstanceCodec;
+
+	private volatile long appendedBytes;
+
+	// The journal this client holds the lock for, guarded by this
+	private Path lockedFile;
+	private FileChannel lockChannel;
+	private FileLock lock;
+
+	@Inject
+	public ClueGroundJournal(ClueInstanceCodec clueInstanceCodec)
+	{
+		this.clueInstanceCodec = clueInstanceCodec;
+	}
+
+	public boolean isCompactionDue()
+	{
+		return appendedBytes > COMPACT_AFTER_BYTES;
+	}
+
+	/**
+	 * @param profileId the ID of the config profile the clues were loaded from
+	 * @param regions the current clues of each region changed since they were last journaled, keyed by region ID
+	 */
+	public void append(long profileId, Map<Integer, List<ClueInstanceData>> regions)
+	{
+		if (regions.isEmpty()) return;
+
+		Path journalFile = claimJournal(profileId);
+		if (journalFile == null) return;
+
+		String records = encodeRecords(regions);
+		try
+		{
+			try (BufferedWriter writer = Files.newBufferedWriter(journalFile, StandardCharsets.UTF_8,
+				StandardOpenOption.CREATE, StandardOpenOption.APPEND))
+			{
+				writer.write(records);
+			}
+			appendedBytes += records.length();
+		}
+		catch (IOException err)
+		{
+			log.warn("Failed to append to ground clue journal", err);
+		}
+	}
+
+	/**
+	 * Replaces the journal with the clues of every region, written to a separate file first so that a crash part way
+	 * through leaves the old journal in place.
+	 *
+	 * @param profileId the ID of the config profile the clues were loaded from
+	 * @param regions the current clues of every loaded region, keyed by region ID
+	 */
+	public void writeSnapshot(long profileId, Map<Integer, List<ClueInstanceData>> regions)
+	{
+		Path journalFile = claimJournal(profileId);
+		if (journalFile == null) return;
+
+		String records = encodeRecords(regions);
+		Path snapshotFile = journalFile.resolveSibling(journalFile.getFileName() + ".tmp");
+		try
+		{
+			Files.write(snapshotFile, records.getBytes(StandardCharsets.UTF_8));
+			try
+			{
+				Files.move(snapshotFile, journalFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			}
+			catch (AtomicMoveNotSupportedException err)
+			{
+				Files.move(snapshotFile, journalFile, StandardCopyOption.REPLACE_EXISTING);
+			}
+			appendedBytes = 0;
+		}
+		catch (IOException err)
+		{
+			log.warn("Failed to compact ground clue journal", err);
+		}
+	}
+
+	/**
+	 * Empties the journal, once everything in it has been saved to the config.
+	 */
+	public void clear(long profileId)
+	{
+		Path journalFile = claimJournal(profileId);
+		if (journalFile == null) return;
+
+		try
+		{
+			Files.deleteIfExists(journalFile);
+			appendedBytes = 0;
+		}
+		catch (IOException err)
+		{
+			log.warn("Failed to clear ground clue journal", err);
+		}
+	}
+
+	/**
+	 * Reads back the journal. Lines which can't be read, such as one cut short by a crash, are skipped.
+	 *
+	 * @return the latest encoded clues of each journaled region, keyed by region ID
+	 */
+	public Map<Integer, String> read(long profileId)
+	{
+		Path journalFile = claimJournal(profileId);
+		if (journalFile == null) return Collections.emptyMap();
+
+		Map<Integer, String> regions = new HashMap<>();
+		long bytes = 0;
+		try (BufferedReader reader = Files.newBufferedReader(journalFile, StandardCharsets.UTF_8))
+		{
+			for (String line = reader.readLine(); line != null; line = reader.readLine())
+			{
+				bytes += line.length() + 1;
+				int separator = line.indexOf(':');
+				if (separator <= 0) continue;
+
+				String regionData = line.substring(separator + 1);
+				try
+				{
+					int regionId = Integer.parseInt(line.substring(0, separator));
+					// A line cut short would lose clues, so it must read back whole
+					if (clueInstanceCodec.decode(regionData, clue -> {}) > 0) continue;
+					regions.put(regionId, regionData);
+				}
+				catch (Exception err)
+				{
+					log.debug("Skipping unreadable ground clue journal line");
+				}
+			}
+		}
+		catch (NoSuchFileException err)
+		{
+			return Collections.emptyMap();
+		}
+		catch (IOException err)
+		{
+			log.warn("Failed to read ground clue journal", err);
+		}
+
+		appendedBytes = bytes;
+		return regions;
+	}
+
+	/**
+	 * Locks the journal of a config profile for this client, letting go of any other it had locked.
+	 *
+	 * @return the journal, or null if another client is using it
+	 */
+	private synchronized Path claimJournal(long profileId)
+	{
+		Path journalFile = JOURNAL_DIR.resolve("ground-clues-" + (profileId == 0 ? "default" : profileId) + ".journal");
+		if (journalFile.equals(lockedFile))
+		{
+			return lock == null ? null : journalFile;
+		}
+
+		releaseLock();
+		lockedFile = journalFile;
+		try
+		{
+			Files.createDirectories(JOURNAL_DIR);
+			lockChannel = FileChannel.open(journalFile.resolveSibling(journalFile.getFileName() + ".lock"),
+				StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+			lock = lockChannel.tryLock();
+		}
+		catch (IOException | OverlappingFileLockException err)
+		{
+			log.warn("Failed to lock ground clue journal", err);
+		}
+
+		if (lock == null)
+		{
+			releaseLock();
+			log.info("Ground clue journal {} is in use by another client, so changes won't be journaled", journalFile);
+			return null;
+		}
+		// The last load read a different journal, so appends are counted afresh
+		appendedBytes = 0;
+		return journalFile;
+	}
+
+	private void releaseLock()
+	{
+		try
+		{
+			if (lock != null)
+			{
+				lock.release();
+			}
+			if (lockChannel != null)
+			{
+				lockChannel.close();
+			}
+		}
+		catch (IOException err)
+		{
+			log.debug("Failed to release ground clue journal lock", err);
+		}
+		lock = null;
+		lockChannel = null;
+	}
+
+	private String encodeRecords(Map<Integer, List<ClueInstanceData>> regions)
+	{
+		StringBuilder records = new StringBuilder();
+		for (Map.Entry<Integer, List<ClueInstanceData>> region : regions.entrySet())
+		{
+			records.append(region.getKey())
+				.append(':')
+				.append(clueInstanceCodec.encode(region.getValue()))
+				.append('\n');
+		}
+		return records.toString();
+	}
+}
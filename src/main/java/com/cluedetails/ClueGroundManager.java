@@ -29,6 +29,7 @@ import java.util.stream.Collectors;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
 import net.runelite.api.*;
 import net.runelite.api.coords.WorldPoint;
 import net.runelite.api.events.ItemDespawned;
@@ -36,31 +37,68 @@ import net.runelite.api.events.ItemSpawned;
 
 import java.util.*;
 import net.runelite.api.gameval.ItemID;
+import net.runelite.client.chat.QueuedMessage;
 
+@Slf4j
 @Singleton
 public class ClueGroundManager
 {
 	private final Client client;
 
 	private final ClueDetailsPlugin clueDetailsPlugin;
+	private final ClueDetailsConfig config;
 	@Getter
 	private final ClueGroundSaveDataManager clueGroundSaveDataManager;
+	private final ClueSaveExecutor clueSaveExecutor;
+	private final ClueGroundJournal clueGroundJournal;
 	private final Set<Tile> itemHasSpawnedOnTileThisTick = new HashSet<>();
 	@Getter
 	private final List<ClueInstance> despawnedClueQueueForInventoryCheck = new ArrayList<>();
 	private final int MAX_DESPAWN_TIMER = 6100;
+	// Changes are appended to the journal every few ticks, rather than on every change
+	private static final int JOURNAL_INTERVAL_TICKS = 5;
 	private Zone lastZone;
 	private Zone currentZone;
 	private final WorldPointToClueInstances trackedClues;
 
 	private final Set<Tile> resetEasyToEliteThisTick = new HashSet<>();
 
+	// Clues forgotten this session to stay within the tracking limits
+	@Getter
+	private long evictedClueCount;
+
+	// Bumped when config the ground clue quantities depend on changes
+	private int quantitiesConfigEpoch;
+
+	private final GroundItemEventBuffer groundItemEvents = new GroundItemEventBuffer();
+	// Where the player was when the buffered events are handled, worked out at most once per batch
+	private Zone playerZoneForEvents;
+
+	// A scene load spawns every item in the scene, so rather than handling those one by one the loaded scene is
+	// scanned once. Spawns aren't recorded from the start of loading until that scan
+	private boolean sceneLoading;
+	private boolean sceneScanPending;
+
+	// Saved clues are read a map region at a time, once the scene first includes the region
+	private final Set<Integer> loadedRegions = new HashSet<>();
+	private boolean sceneRegionsPending;
+
+	private final ClueMatchingEngine clueMatchingEngine = new ClueMatchingEngine();
+	private final Map<TileItem, Integer> groundIndexByTileItem = new IdentityHashMap<>();
+	private final Set<ClueInstance> cluesKeptOnTile = Collections.newSetFromMap(new IdentityHashMap<>());
+	private final List<ClueInstance> storedCluesForMatching = new ArrayList<>();
+	private int[] groundIndexesForMatching = new int[16];
+
 	@Inject
-	public ClueGroundManager(Client client, ClueGroundSaveDataManager clueGroundSaveDataManager, ClueDetailsPlugin clueDetailsPlugin)
+	public ClueGroundManager(Client client, ClueGroundSaveDataManager clueGroundSaveDataManager, ClueDetailsPlugin clueDetailsPlugin,
+		ClueDetailsConfig config, ClueSaveExecutor clueSaveExecutor, ClueGroundJournal clueGroundJournal)
 	{
 		this.client = client;
 		this.clueDetailsPlugin = clueDetailsPlugin;
+		this.config = config;
 		this.clueGroundSaveDataManager = clueGroundSaveDataManager;
+		this.clueSaveExecutor = clueSaveExecutor;
+		this.clueGroundJournal = clueGroundJournal;
 
 		trackedClues = new WorldPointToClueInstances(client, clueDetailsPlugin);
 	}
@@ -74,6 +112,8 @@ public class ClueGroundManager
 	{
 		// Need to clear incase the player toggles the plugin on/off on the same tick
 		resetEasyToEliteThisTick.clear();
+		groundItemEvents.clear();
+		playerZoneForEvents = null;
 	}
 
 	public SortedSet<ClueInstance> getAllGroundCluesOnWp(WorldPoint worldPoint)
@@ -81,23 +121,161 @@ public class ClueGroundManager
 		return trackedClues.getAllCluesAtWorldPoint(worldPoint);
 	}
 
+	public SortedSet<ClueInstance> getAllGroundCluesOnWp(int x, int y, int plane)
+	{
+		return trackedClues.getAllCluesAtWorldPoint(x, y, plane);
+	}
+
+	public void onGameStateChanged(GameState gameState)
+	{
+		if (gameState == GameState.LOADING)
+		{
+			sceneLoading = true;
+		}
+		else if (gameState == GameState.LOGGED_IN && sceneLoading)
+		{
+			sceneLoading = false;
+			sceneScanPending = true;
+			sceneRegionsPending = true;
+		}
+	}
+
 	public void onItemSpawned(ItemSpawned event)
 	{
-		TileItem item = event.getItem();
-		Tile tile = event.getTile();
+		if (sceneLoading || sceneScanPending) return;
+
+		groundItemEvents.add(event.getTile(), event.getItem(), true, client.getTickCount());
+	}
+
+	public void onItemDespawned(ItemDespawned event)
+	{
+		groundItemEvents.add(event.getTile(), event.getItem(), false, client.getTickCount());
+	}
 
-		if (!Clues.isClue(item.getId(), clueDetailsPlugin.isDeveloperMode())) return;
+	/**
+	 * Handles the ground item events recorded since this was last called. This needs to happen before the inventory
+	 * is updated, as drops and pick-ups are identified from the inventory as it was when the items moved.
+	 */
+	public void processGroundItemEvents()
+	{
+		// Clues saved in the scene are needed before what's in it can be matched to them
+		if (sceneRegionsPending && client.getGameState() == GameState.LOGGED_IN)
+		{
+			sceneRegionsPending = false;
+			int[] mapRegions = client.getTopLevelWorldView().getMapRegions();
+			if (mapRegions != null)
+			{
+				for (int regionId : mapRegions)
+				{
+					loadRegion(regionId);
+				}
+			}
+		}
 
-		// If easy-elite task, we just override
-		if (!Clues.isBeginnerOrMasterClue(item.getId(), clueDetailsPlugin.isDeveloperMode()))
+		if (sceneScanPending)
 		{
-			resetEasyToEliteThisTick.add(tile);
-			return;
+			sceneScanPending = false;
+			scanSceneForClues();
 		}
 
+		int eventCount = groundItemEvents.size();
+		if (eventCount == 0) return;
+
+		boolean developerMode = clueDetailsPlugin.isDeveloperMode();
+
+		// If easy-elite task, we just override, so one reset covers every event on the tile
+		for (int i = 0; i < eventCount; i++)
+		{
+			int itemId = groundItemEvents.getItem(i).getId();
+			if (groundItemEvents.isSpawn(i)
+				&& Clues.isClue(itemId, developerMode)
+				&& !Clues.isBeginnerOrMasterClue(itemId, developerMode))
+			{
+				resetEasyToEliteThisTick.add(groundItemEvents.getTile(i));
+			}
+		}
+
+		for (int i = 0; i < eventCount; i++)
+		{
+			Tile tile = groundItemEvents.getTile(i);
+			TileItem item = groundItemEvents.getItem(i);
+			if (!Clues.isClue(item.getId(), developerMode)) continue;
+
+			boolean isBeginnerOrMaster = Clues.isBeginnerOrMasterClue(item.getId(), developerMode);
+			if (groundItemEvents.isSpawn(i))
+			{
+				if (isBeginnerOrMaster)
+				{
+					handleBeginnerOrMasterSpawn(tile, item, groundItemEvents.getTick(i));
+				}
+			}
+			else if (isBeginnerOrMaster || !resetEasyToEliteThisTick.contains(tile))
+			{
+				handleDespawn(tile, item, isBeginnerOrMaster, groundItemEvents.getTick(i));
+			}
+		}
+
+		groundItemEvents.clear();
+		playerZoneForEvents = null;
+	}
+
+	private void scanSceneForClues()
+	{
+		long start = System.nanoTime();
+		boolean developerMode = clueDetailsPlugin.isDeveloperMode();
+		int tilesWithClues = 0;
+
+		for (Tile[][] plane : client.getTopLevelWorldView().getScene().getTiles())
+		{
+			for (Tile[] column : plane)
+			{
+				for (Tile tile : column)
+				{
+					if (tile == null) continue;
+					List<TileItem> items = tile.getGroundItems();
+					if (items == null) continue;
+
+					boolean hasEasyToElite = false;
+					boolean hasBeginnerOrMaster = false;
+					for (TileItem item : items)
+					{
+						if (!Clues.isClue(item.getId(), developerMode)) continue;
+						if (Clues.isBeginnerOrMasterClue(item.getId(), developerMode))
+						{
+							hasBeginnerOrMaster = true;
+						}
+						else
+						{
+							hasEasyToElite = true;
+						}
+					}
+
+					// Nothing in a fresh scene can have been dropped this tick, so each tile is treated as
+					// its spawn events would have been
+					if (hasEasyToElite)
+					{
+						resetEasyToEliteThisTick.add(tile);
+					}
+					if (hasBeginnerOrMaster)
+					{
+						itemHasSpawnedOnTileThisTick.add(tile);
+					}
+					if (hasEasyToElite || hasBeginnerOrMaster)
+					{
+						tilesWithClues++;
+					}
+				}
+			}
+		}
+
+		log.debug("Scanned loaded scene for ground clues in {}us, {} tiles with clues", (System.nanoTime() - start) / 1000, tilesWithClues);
+	}
+
+	private void handleBeginnerOrMasterSpawn(Tile tile, TileItem item, int tick)
+	{
 		ClueInstance inventoryClue = clueDetailsPlugin.getClueInventoryManager().getClueByClueItemId(item.getId());
 		// If clue in inventory AND new clue appeared with fresh despawn timer, it must be the inventory item being dropped
-		if (isNewGroundClue(item.getId(), item.getDespawnTime()) && inventoryClue != null)
+		if (isNewGroundClue(item.getId(), item.getDespawnTime(), tick) && inventoryClue != null)
 		{
 			ClueInstance newGroundClue = new ClueInstance(inventoryClue.getClueIds(), inventoryClue.getItemId(), tile.getWorldLocation(), item, true);
 			trackedClues.addClue(newGroundClue);
@@ -108,35 +286,33 @@ public class ClueGroundManager
 		itemHasSpawnedOnTileThisTick.add(tile);
 	}
 
-	private boolean isNewGroundClue(int itemID, int despawnTick)
+	private boolean isNewGroundClue(int itemID, int despawnTick, int currentTick)
 	{
-		int ticksToDespawn = despawnTick - client.getTickCount();
+		int ticksToDespawn = despawnTick - currentTick;
 
 		if (ticksToDespawn == MAX_DESPAWN_TIMER) return true;
 
 		return clueDetailsPlugin.isDeveloperMode() &&
-			Clues.DEV_MODE_IDS.contains(itemID) &&
+			Clues.isDevModeId(itemID) &&
 			despawnTick >= 300;
 	}
 
-	public void onItemDespawned(ItemDespawned event)
+	private void handleDespawn(Tile tile, TileItem item, boolean isBeginnerOrMaster, int tick)
 	{
-		TileItem item = event.getItem();
-		if (!Clues.isClue(item.getId(), clueDetailsPlugin.isDeveloperMode())) return;
-		WorldPoint location = event.getTile().getWorldLocation();
+		WorldPoint location = tile.getWorldLocation();
 
 		// Only process events where the actual item has just despawned
 		// This helps to retain identified clues
-		if (event.getItem().getId() == ItemID.TRAIL_CLUE_BEGINNER
-			|| event.getItem().getId() == ItemID.TRAIL_CLUE_MASTER)
+		if (item.getId() == ItemID.TRAIL_CLUE_BEGINNER
+			|| item.getId() == ItemID.TRAIL_CLUE_MASTER)
 		{
 			if (ClueDetailsPlugin.getCurrentPlane() != location.getPlane()) return;
 		}
 
-		if (!Clues.isBeginnerOrMasterClue(item.getId(), clueDetailsPlugin.isDeveloperMode()))
+		if (!isBeginnerOrMaster)
 		{
-			ClueInstance clueInstance = new ClueInstance(List.of(), item.getId(), location, item, client.getTickCount());
-			trackedClues.removeClue(clueInstance);
+			ClueInstance clueInstance = new ClueInstance(List.of(), item.getId(), location, item, tick);
+			trackedClues.removeMatchingClue(clueInstance);
 			return;
 		}
 
@@ -146,12 +322,13 @@ public class ClueGroundManager
 		if (cluesAtLocation == null) return;
 
 		// If no logging out/reloading and such happens, despawnTime remains off by 1, so need to account for it
-		if (item.getDespawnTime() - client.getTickCount() <= 1)
+		if (item.getDespawnTime() - tick <= 1)
 		{
-			Optional<ClueInstance> optionalClue = cluesAtLocation.stream()
-				.filter((clue) -> clue.getTileItem() == item)
-				.findFirst();
-			optionalClue.ifPresent((trackedClues::removeClue));
+			ClueInstance clue = findClueWithTileItem(cluesAtLocation, item);
+			if (clue != null)
+			{
+				trackedClues.removeClue(clue);
+			}
 			return;
 		}
 
@@ -164,12 +341,11 @@ public class ClueGroundManager
 		// 1. Picked up the clue
 		// 2. Done nothing, clue is still there just with a new ID
 		// We know it's 2 if we've gone from 5 zones distance to 4 zones distance
-		Zone clueZone = new Zone(location);
-		Zone currentZone = new Zone(client.getLocalPlayer().getWorldLocation());
 		if (lastZone != null)
 		{
+			Zone clueZone = new Zone(location);
 			int distFromLastZone = clueZone.maxDistanceTo(lastZone);
-			int distFromCurrentZone = clueZone.maxDistanceTo(currentZone);
+			int distFromCurrentZone = clueZone.maxDistanceTo(getPlayerZoneForEvents());
 			if (distFromLastZone == 4 && distFromCurrentZone == 3)
 			{
 				return;
@@ -177,11 +353,33 @@ public class ClueGroundManager
 		}
 
 		// Not gone over a zone to load, probably picked up
-		Optional<ClueInstance> optionalClue = cluesAtLocation.stream()
-			.filter((clue) -> clue.getTileItem() == item)
-			.findFirst();
-		optionalClue.ifPresent(despawnedClueQueueForInventoryCheck::add);
-		optionalClue.ifPresent((trackedClues::removeClue));
+		ClueInstance clue = findClueWithTileItem(cluesAtLocation, item);
+		if (clue != null)
+		{
+			despawnedClueQueueForInventoryCheck.add(clue);
+			trackedClues.removeClue(clue);
+		}
+	}
+
+	private Zone getPlayerZoneForEvents()
+	{
+		if (playerZoneForEvents == null)
+		{
+			playerZoneForEvents = new Zone(client.getLocalPlayer().getWorldLocation());
+		}
+		return playerZoneForEvents;
+	}
+
+	private static ClueInstance findClueWithTileItem(List<ClueInstance> clues, TileItem item)
+	{
+		for (ClueInstance clue : clues)
+		{
+			if (clue.getTileItem() == item)
+			{
+				return clue;
+			}
+		}
+		return null;
 	}
 
 	public Set<WorldPoint> getTrackedWorldPoints()
@@ -191,6 +389,8 @@ public class ClueGroundManager
 
 	public void onGameTick()
 	{
+		processGroundItemEvents();
+
 		currentZone = new Zone(client.getLocalPlayer().getWorldLocation());
 		trackedClues.clearEmptyTiles(currentZone);
 
@@ -200,12 +400,38 @@ public class ClueGroundManager
 		}
 		itemHasSpawnedOnTileThisTick.clear();
 		trackedClues.removeDespawnedClues();
+		evictLeastRecentlyObservedClues();
 		resetEasyToEliteThisTick.forEach(this::createEasyToEliteForTile);
 		resetEasyToEliteThisTick.clear();
 
+		if (client.getTickCount() % JOURNAL_INTERVAL_TICKS == 0)
+		{
+			journalChanges();
+		}
+
 		lastZone = currentZone;
 	}
 
+	private void evictLeastRecentlyObservedClues()
+	{
+		int evicted = trackedClues.evictLeastRecentlyObserved(config.maxTrackedGroundClues(), config.maxTrackedGroundTiles());
+		if (evicted == 0) return;
+
+		boolean firstEviction = evictedClueCount == 0;
+		evictedClueCount += evicted;
+		log.debug("Forgot {} ground clues seen longest ago ({} this session), now tracking {} clues on {} tiles",
+			evicted, evictedClueCount, trackedClues.getClueCount(), trackedClues.getTileCount());
+
+		// Forgotten clues are dropped from the save too, so let the player know, but only the first time a session
+		if (firstEviction)
+		{
+			clueDetailsPlugin.getChatMessageManager().queue(QueuedMessage.builder()
+				.type(ChatMessageType.CONSOLE)
+				.runeLiteFormattedMessage("Clue Details is forgetting the ground clues seen longest ago, to stay within its tracking limits.")
+				.build());
+		}
+	}
+
 	private void createEasyToEliteForTile(Tile tile)
 	{
 
@@ -223,23 +449,26 @@ public class ClueGroundManager
 			}
 		}
 
-		SortedSet<ClueInstance> cluesAtWp = trackedClues.getAllCluesAtWorldPoint(tile.getWorldLocation());
-		for (int i = 0; i < items.size(); i++)
+		Map<TileItem, ClueInstance> cluesByTileItem = new IdentityHashMap<>();
+		for (ClueInstance clueInstance : trackedClues.getAllCluesAtWorldPoint(tile.getWorldLocation()))
 		{
-			TileItem tileItem = items.get(i);
-			int finalI = i + 1;
-			cluesAtWp.stream()
-				.filter((clueInstance -> clueInstance.getTileItem() == tileItem))
-				.findFirst()
-				.ifPresent((clueInstance -> clueInstance.setSequenceNumber(finalI)));
+			if (clueInstance.getTileItem() != null)
+			{
+				cluesByTileItem.putIfAbsent(clueInstance.getTileItem(), clueInstance);
+			}
 		}
-		List<ClueInstance> clues = new ArrayList<>(cluesAtWp);
-		for (ClueInstance clueInstance : clues)
+
+		// Order the clues on the tile to match the order of the items on it
+		Map<ClueInstance, Long> sequenceNumbers = new IdentityHashMap<>();
+		for (int i = 0; i < items.size(); i++)
 		{
-			// Re-sorts the order of clues
-			trackedClues.removeClue(clueInstance);
-			trackedClues.addClue(clueInstance);
+			ClueInstance clueInstance = cluesByTileItem.get(items.get(i));
+			if (clueInstance != null)
+			{
+				sequenceNumbers.put(clueInstance, (long) i + 1);
+			}
 		}
+		trackedClues.updateSequenceNumbers(tile.getWorldLocation(), sequenceNumbers);
 	}
 
 	private void checkClueThroughRelativeDespawnTimers(Tile tile)
@@ -277,22 +506,17 @@ public class ClueGroundManager
 
 	private List<ClueInstance> generateNewCluesOnTile(WorldPoint tileWp, List<ClueInstance> storedClues, List<TileItem> cluesOnTile)
 	{
-		int currentTick = client.getTickCount();
-
 		if (storedClues.size() == 1 && cluesOnTile.size() == 1)
 		{
 			// We assume it is the same clue. It is possible for it to be swapped with another clue though in
 			// another client/mobile, and this will be wrong
 			if (storedClues.get(0).getDespawnTick() >= cluesOnTile.get(0).getDespawnTime())
 			{
-				storedClues.get(0).setTileItem(cluesOnTile.get(0));
+				trackedClues.setTileItem(storedClues.get(0), cluesOnTile.get(0), false);
 				return storedClues;
 			}
 		}
 
-		List<ClueInstance> sortedStoredClues = new ArrayList<>(storedClues);
-		sortedStoredClues.sort(Comparator.comparingInt((clue) -> clue.getTicksToDespawnConsideringTileItem(currentTick)));
-
 		// If only 1 of either but not both, less certainty as can't use diffs.
 		// Could assume things like last clue expired, probs let's just assume nothing
 		if (storedClues.size() <= 1 || cluesOnTile.size() == 1)
@@ -313,76 +537,105 @@ public class ClueGroundManager
 			return actualCluesOnTile;
 		}
 
-		// Sort ground clues by despawn time ascending
-		List<TileItem> sortedGroundClues = new ArrayList<>(cluesOnTile);
-		sortedGroundClues.removeIf((tileItem -> tileItem.getDespawnTime() > sortedStoredClues.get(sortedStoredClues.size() - 1).getDespawnTick()));
-		sortedGroundClues.sort(Comparator.comparingInt(TileItem::getDespawnTime));
+		ClueInstance[] cluesByGroundIndex = new ClueInstance[cluesOnTile.size()];
 
-		Map<Integer, List<TileItem>> groundItemsByItemID = sortedGroundClues.stream()
-			.collect(Collectors.groupingBy(TileItem::getId, LinkedHashMap::new, Collectors.toList()));
-		Map<Integer, List<ClueInstance>> sortedItemsByItemID = sortedStoredClues.stream()
-			.collect(Collectors.groupingBy(ClueInstance::getItemId, LinkedHashMap::new, Collectors.toList()));
+		// Clues whose item never left the tile keep it
+		groundIndexByTileItem.clear();
+		for (int i = 0; i < cluesOnTile.size(); i++)
+		{
+			groundIndexByTileItem.put(cluesOnTile.get(i), i);
+		}
+		for (ClueInstance storedClue : storedClues)
+		{
+			Integer groundIndex = storedClue.getTileItem() == null ? null : groundIndexByTileItem.get(storedClue.getTileItem());
+			if (groundIndex != null && cluesByGroundIndex[groundIndex] == null)
+			{
+				cluesByGroundIndex[groundIndex] = storedClue;
+				cluesKeptOnTile.add(storedClue);
+			}
+		}
+		groundIndexByTileItem.clear();
 
-		for (Integer itemID : groundItemsByItemID.keySet())
+		boolean[] unmatched = new boolean[cluesOnTile.size()];
+		for (int i = 0; i < unmatched.length; i++)
 		{
-			if (sortedItemsByItemID.get(itemID) == null) continue;
-			findMatchingClues(sortedItemsByItemID.get(itemID), groundItemsByItemID.get(itemID));
+			unmatched[i] = cluesByGroundIndex[i] == null;
 		}
-		
-		List<ClueInstance> foundClues = new ArrayList<>();
+		// Match the rest once per item ID
+		for (int i = 0; i < unmatched.length; i++)
+		{
+			if (isFirstUnmatchedOfItemId(cluesOnTile, unmatched, i))
+			{
+				findMatchingClues(cluesOnTile.get(i).getId(), storedClues, cluesOnTile, cluesByGroundIndex);
+			}
+		}
+		cluesKeptOnTile.clear();
 
-		cluesOnTile.stream()
-			.map(tileItem -> sortedStoredClues.stream()
-				.filter(clue -> clue.getTileItem() == tileItem)
-				.findFirst()
-				.orElseGet(() -> new ClueInstance(List.of(), tileItem.getId(), tileWp, tileItem, client.getTickCount())))
-			.forEach(foundClues::add);
+		List<ClueInstance> foundClues = new ArrayList<>();
+		for (int i = 0; i < cluesOnTile.size(); i++)
+		{
+			TileItem tileItem = cluesOnTile.get(i);
+			if (cluesByGroundIndex[i] == null)
+			{
+				cluesByGroundIndex[i] = new ClueInstance(List.of(), tileItem.getId(), tileWp, tileItem, client.getTickCount());
+			}
+			foundClues.add(cluesByGroundIndex[i]);
+		}
 
 		return foundClues;
 	}
 
-	private void findMatchingClues(List<ClueInstance> sortedStoredClues, List<TileItem> sortedGroundClues)
+	private boolean isFirstUnmatchedOfItemId(List<TileItem> cluesOnTile, boolean[] unmatched, int groundIndex)
 	{
-		// Need to loop diffs, and see matches in each.
-		// For items with the same ID, no matter what item you click in a stack, you will always pick up the first item dropped in the stack
-		// This means we don't need to worry about considering gaps where a clue has been taken from the middle of a stack.
-		int minGroundItemFound = 0;
+		if (!unmatched[groundIndex]) return false;
 
-		if (sortedStoredClues.size() == 1 && sortedGroundClues.size() == 1)
+		int itemId = cluesOnTile.get(groundIndex).getId();
+		for (int i = 0; i < groundIndex; i++)
 		{
-			// We assume it is the same clue. It is possible for it to be swapped with another clue though in
-			// another client/mobile, and this will be wrong
-			if (sortedStoredClues.get(0).getDespawnTick() >= sortedGroundClues.get(0).getDespawnTime())
+			if (unmatched[i] && cluesOnTile.get(i).getId() == itemId)
 			{
-				sortedStoredClues.get(0).setTileItem(sortedGroundClues.get(0));
-				return;
+				return false;
 			}
 		}
+		return true;
+	}
 
-		for (int i = 0; i < sortedStoredClues.size() - 1; i++)
+	private void findMatchingClues(int itemId, List<ClueInstance> storedClues, List<TileItem> cluesOnTile, ClueInstance[] cluesByGroundIndex)
+	{
+		clueMatchingEngine.reset();
+		storedCluesForMatching.clear();
+		for (ClueInstance storedClue : storedClues)
 		{
-			ClueInstance clueInstance1 = sortedStoredClues.get(i);
-			ClueInstance clueInstance2 = sortedStoredClues.get(i + 1);
-
-			TileItem groundClue1 = sortedGroundClues.get(minGroundItemFound);
-			TileItem groundClue2 = sortedGroundClues.get(minGroundItemFound + 1);
+			if (storedClue.getItemId() != itemId || cluesKeptOnTile.contains(storedClue)) continue;
+			storedCluesForMatching.add(storedClue);
+			clueMatchingEngine.addStored(storedClue.getTicksToDespawnConsideringTileItem(client.getTickCount()), storedClue.getDespawnTick());
+		}
+		if (storedCluesForMatching.isEmpty()) return;
 
-			int currentStoredClueDiff = clueInstance2.getTimeToDespawnFromDataInTicks() - clueInstance1.getTimeToDespawnFromDataInTicks();
-			int currentGroundClueDiff = groundClue2.getDespawnTime() - groundClue1.getDespawnTime();
-			// Same diff, probs same thing
-			if (currentGroundClueDiff != currentStoredClueDiff) continue;
-			// If item will despawn later than the stored clue, it can't be it.
-			if (groundClue1.getDespawnTime() > clueInstance1.getDespawnTick()) continue;
-			if (groundClue2.getDespawnTime() > clueInstance2.getDespawnTick()) continue;
-			clueInstance1.setTileItem(groundClue1);
-			clueInstance2.setTileItem(groundClue2);
-			minGroundItemFound++;
+		int groundCount = 0;
+		for (int i = 0; i < cluesOnTile.size(); i++)
+		{
+			if (cluesByGroundIndex[i] != null || cluesOnTile.get(i).getId() != itemId) continue;
+			if (groundCount == groundIndexesForMatching.length)
+			{
+				groundIndexesForMatching = Arrays.copyOf(groundIndexesForMatching, groundCount * 2);
+			}
+			groundIndexesForMatching[clueMatchingEngine.addGround(cluesOnTile.get(i).getDespawnTime())] = i;
+			groundCount++;
 		}
 
-		for (ClueInstance sortedStoredClue : sortedStoredClues)
+		clueMatchingEngine.solve();
+		for (int i = 0; i < storedCluesForMatching.size(); i++)
 		{
-			sortedStoredClue.updateDespawnTick();
+			int match = clueMatchingEngine.getMatch(i);
+			if (match == -1) continue;
+
+			int groundIndex = groundIndexesForMatching[match];
+			ClueInstance storedClue = storedCluesForMatching.get(i);
+			trackedClues.setTileItem(storedClue, cluesOnTile.get(groundIndex), true);
+			cluesByGroundIndex[groundIndex] = storedClue;
 		}
+		storedCluesForMatching.clear();
 	}
 
 	private List<TileItem> getClueItemsAtTile(Tile tile)
@@ -417,15 +670,27 @@ public class ClueGroundManager
 			return Comparator
 				.comparingLong(ClueInstance::getSequenceNumber)
 				.thenComparingInt(ClueInstance::getDespawnTick)
+				.thenComparingLong(ClueInstance::getInstanceId)
 				.compare(o1, o2);
 		}
 	}
 
+	/**
+	 * The result is cached on the tile until its clues, the collapse config or the enabled tiers change, and is shared
+	 * between callers, so it must not be modified.
+	 */
 	public TreeMap<ClueInstance, Integer> getClueInstancesWithQuantityAtWp(ClueDetailsConfig config, WorldPoint wp)
 	{
-		if (!trackedClues.getAllTrackedWorldPoints().contains(wp)) return null;
+		TileClues tile = trackedClues.getTileClues(wp);
+		if (tile == null || tile.isEmpty()) return null;
 
-		SortedSet<ClueInstance> groundItemList = trackedClues.getAllCluesAtWorldPoint(wp);
+		// Tiers are grouped through the tier-filtered lookups, so toggling a tier makes the cache stale too. Both epochs
+		// only ever increase, so their sum changes whenever either does
+		int configEpoch = quantitiesConfigEpoch + Clues.getEnabledTiersEpoch();
+		TreeMap<ClueInstance, Integer> cachedClueInstances = tile.getCachedQuantities(configEpoch);
+		if (cachedClueInstances != null) return cachedClueInstances;
+
+		SortedSet<ClueInstance> groundItemList = tile.getSortedClues();
 		Map<ClueInstance, Integer> groundItemMap = new HashMap<>();
 
 		if (config.collapseGroundCluesByTier())
@@ -448,9 +713,15 @@ public class ClueGroundManager
 		ClueInstanceComparator clueInstanceComparator = new ClueInstanceComparator();
 		TreeMap<ClueInstance, Integer> clueInstancesWithQuantityAtWp = new TreeMap<>(clueInstanceComparator);
 		clueInstancesWithQuantityAtWp.putAll(groundItemMap);
+		tile.cacheQuantities(clueInstancesWithQuantityAtWp, configEpoch);
 		return clueInstancesWithQuantityAtWp;
 	}
 
+	public void invalidateClueQuantities()
+	{
+		quantitiesConfigEpoch++;
+	}
+
 	// Remove duplicate step clues, maintaining a count of the original amount of each
 	public static Map<ClueInstance, Integer> keepOldestUniqueClues(SortedSet<ClueInstance> items)
 	{
@@ -510,13 +781,114 @@ public class ClueGroundManager
 
 	public void saveStateToConfig()
 	{
-		clueGroundSaveDataManager.saveStateToConfig(trackedClues.getAllClues());
+		processGroundItemEvents();
+		journalChanges();
+
+		// Only regions whose clues changed are written
+		Map<Integer, List<ClueInstanceData>> changedRegions = getRegionData(takeLoadedRegions(trackedClues.getDirtyRegions()));
+
+		clueSaveExecutor.saveGroundClues(changedRegions);
+	}
+
+	private void journalChanges()
+	{
+		if (clueGroundJournal.isCompactionDue())
+		{
+			clueSaveExecutor.compactGroundJournal(getRegionData(loadedRegions));
+			takeLoadedRegions(trackedClues.getUnjournaledRegions());
+			return;
+		}
+
+		Set<Integer> changedRegions = takeLoadedRegions(trackedClues.getUnjournaledRegions());
+		if (changedRegions.isEmpty()) return;
+
+		clueSaveExecutor.appendGroundJournal(getRegionData(changedRegions));
+	}
+
+	/**
+	 * Takes the regions whose saved clues have been read out of the given set. The rest are left in it, as writing
+	 * them would replace what's saved with only the clues seen since, such as in a region only ever seen instanced.
+	 */
+	private Set<Integer> takeLoadedRegions(Set<Integer> regionIds)
+	{
+		Set<Integer> loaded = new HashSet<>();
+		for (Iterator<Integer> it = regionIds.iterator(); it.hasNext(); )
+		{
+			int regionId = it.next();
+			if (loadedRegions.contains(regionId))
+			{
+				loaded.add(regionId);
+				it.remove();
+			}
+		}
+		return loaded;
+	}
+
+	private Map<Integer, List<ClueInstanceData>> getRegionData(Set<Integer> regionIds)
+	{
+		Map<Integer, List<ClueInstanceData>> regions = new HashMap<>();
+		for (int regionId : regionIds)
+		{
+			List<ClueInstanceData> regionData = new ArrayList<>();
+			for (ClueInstance clueInstance : trackedClues.getCluesInRegion(regionId))
+			{
+				regionData.add(new ClueInstanceData(clueInstance));
+			}
+			regions.put(regionId, regionData);
+		}
+		return regions;
 	}
 
 	public void loadStateFromConfig()
 	{
+		clueSaveExecutor.awaitPendingSaves();
 		trackedClues.clearAllClues();
-		overwriteGroundClues(clueGroundSaveDataManager.loadStateFromConfig());
+		loadedRegions.clear();
+		overwriteGroundClues(clueGroundSaveDataManager.loadStateFromConfig(clueSaveExecutor.getProfileId()));
+
+		// What was just loaded is already saved, unless it came from the old format and needs saving by region
+		boolean legacyDataLoaded = clueGroundSaveDataManager.isLegacyDataLoaded();
+		if (!legacyDataLoaded)
+		{
+			trackedClues.clearDirtyRegions();
+			trackedClues.clearUnjournaledRegions();
+		}
+
+		// Timers cover clues anywhere, and old format clues are saved again over every region, so those need every
+		// region read now
+		if (legacyDataLoaded || config.showGroundClueTimers())
+		{
+			loadAllSavedRegions();
+		}
+		// Nothing else is saved for the old format clues' regions, so they can be written as they are
+		if (legacyDataLoaded)
+		{
+			loadedRegions.addAll(trackedClues.getTrackedRegions());
+		}
+		sceneRegionsPending = true;
+	}
+
+	public void loadAllSavedRegions()
+	{
+		clueGroundSaveDataManager.getSavedRegions().forEach(this::loadRegion);
+	}
+
+	private void loadRegion(int regionId)
+	{
+		if (!loadedRegions.add(regionId)) return;
+
+		// Clues seen in the region before it was read still need saving along with those read
+		boolean changedBeforeLoad = trackedClues.getDirtyRegions().contains(regionId);
+		Map<WorldPoint, List<ClueInstance>> regionClues = new HashMap<>();
+		int skipped = clueGroundSaveDataManager.loadRegion(regionId, regionClues);
+		if (skipped < 0) return;
+
+		overwriteGroundClues(regionClues);
+		// Unless clues had to be skipped or were already added, the region is saved as it now is
+		if (skipped == 0 && !changedBeforeLoad)
+		{
+			trackedClues.markRegionSaved(regionId);
+		}
 	}
 
 	private void overwriteGroundClues(Map<WorldPoint, List<ClueInstance>> newGroundClues)
@@ -29,9 +29,7 @@ import java.awt.Dimension;
 import java.awt.FontMetrics;
 import java.awt.Graphics2D;
 import java.awt.Polygon;
-import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -131,8 +129,7 @@ public class ClueGroundOverlay extends Overlay
 				continue;
 			}
 
-			List<Map.Entry<ClueInstance, Integer>> entrySet = new ArrayList<>(clueInstancesWithQuantityAtWp.entrySet());
-			for (Map.Entry<ClueInstance, Integer> entry : entrySet)
+			for (Map.Entry<ClueInstance, Integer> entry : clueInstancesWithQuantityAtWp.entrySet())
 			{
 				ClueInstance item = entry.getKey();
 
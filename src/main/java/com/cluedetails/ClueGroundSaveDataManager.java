@@ -24,94 +24,241 @@
  */
 package com.cluedetails;
 
-import com.google.gson.Gson;
-import com.google.gson.reflect.TypeToken;
-import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
 import net.runelite.api.coords.WorldPoint;
 import net.runelite.client.config.ConfigManager;
 
+/**
+ * Ground clues are saved per map region, each under its own key, so that a save only rewrites the regions whose
+ * clues changed and a load only reads the regions around the player. The regions holding clues are listed under a
+ * separate key. Changes made since the last save are recovered from the {@link ClueGroundJournal}.
+ */
+@Slf4j
 @Singleton
 public class ClueGroundSaveDataManager
 {
 	private final ConfigManager configManager;
-	private final Gson gson;
+	private final ClueInstanceCodec clueInstanceCodec;
+	private final ClueGroundJournal clueGroundJournal;
 	private static final String CONFIG_GROUP = "clue-details";
+	// All ground clues in one value, as saved before they were split by region
 	private static final String GROUND_CLUES_KEY = "ground-clues";
-	private final List<ClueInstanceData> clueInstanceData = new ArrayList<>();
+	private static final String GROUND_CLUES_REGIONS_KEY = "ground-clues-regions";
+	private static final String GROUND_CLUES_REGION_KEY_PREFIX = "ground-clues-region-";
+
+	private final Set<Integer> savedRegions = new HashSet<>();
+	private boolean legacyDataLoaded;
 
 	@Inject
-	public ClueGroundSaveDataManager(ConfigManager configManager, Gson gson)
+	public ClueGroundSaveDataManager(ConfigManager configManager, ClueInstanceCodec clueInstanceCodec,
+		ClueGroundJournal clueGroundJournal)
 	{
 		this.configManager = configManager;
-		this.gson = gson;
+		this.clueInstanceCodec = clueInstanceCodec;
+		this.clueGroundJournal = clueGroundJournal;
 	}
 
-	public void saveStateToConfig(List<ClueInstance> groundClues)
+	/**
+	 * @param changedRegions the current clues of each region changed since the last save, keyed by region ID
+	 */
+	public synchronized void saveStateToConfig(Map<Integer, List<ClueInstanceData>> changedRegions)
 	{
-		// Serialize groundClues save to config
-		updateData(groundClues);
-		String groundCluesJson = gson.toJson(clueInstanceData);
-		configManager.setConfiguration(CONFIG_GROUP, GROUND_CLUES_KEY, groundCluesJson);
-	}
+		boolean regionsChanged = false;
+		for (Map.Entry<Integer, List<ClueInstanceData>> region : changedRegions.entrySet())
+		{
+			String key = GROUND_CLUES_REGION_KEY_PREFIX + region.getKey();
+			if (region.getValue().isEmpty())
+			{
+				configManager.unsetConfiguration(CONFIG_GROUP, key);
+				regionsChanged |= savedRegions.remove(region.getKey());
+			}
+			else
+			{
+				configManager.setConfiguration(CONFIG_GROUP, key, clueInstanceCodec.encode(region.getValue()));
+				regionsChanged |= savedRegions.add(region.getKey());
+			}
+		}
 
-	private void updateData(List<ClueInstance> groundClues)
-	{
-		List<ClueInstanceData> newData = new ArrayList<>();
-		for (ClueInstance groundClue : groundClues)
+		if (regionsChanged)
+		{
+			saveRegionList();
+		}
+
+		// Everything from the old single value is now saved by region
+		if (legacyDataLoaded)
 		{
-			newData.add(new ClueInstanceData(groundClue));
+			configManager.unsetConfiguration(CONFIG_GROUP, GROUND_CLUES_KEY);
+			legacyDataLoaded = false;
 		}
-		clueInstanceData.clear();
-		clueInstanceData.addAll(newData);
 	}
 
-	public Map<WorldPoint, List<ClueInstance>> loadStateFromConfig()
+	/**
+	 * Whether the last load read clues saved in the old single value. All of them need saving again by region.
+	 */
+	public synchronized boolean isLegacyDataLoaded()
 	{
-		String groundCluesJson = configManager.getConfiguration(CONFIG_GROUP, GROUND_CLUES_KEY);
-		clueInstanceData.clear();
+		return legacyDataLoaded;
+	}
+
+	/**
+	 * The regions which have clues saved. Each is read with {@link #loadRegion} once it's needed.
+	 */
+	public synchronized Set<Integer> getSavedRegions()
+	{
+		return new HashSet<>(savedRegions);
+	}
+
+	/**
+	 * Reads which regions have clues saved, first saving any changes the journal holds which didn't get saved. Clues
+	 * saved in the old single value can't be read by region, so are all read now.
+	 *
+	 * @param profileId the ID of the active config profile, whose journal is read
+	 * @return the clues saved in the old single value
+	 */
+	public synchronized Map<WorldPoint, List<ClueInstance>> loadStateFromConfig(long profileId)
+	{
+		savedRegions.clear();
+		legacyDataLoaded = false;
 
 		Map<WorldPoint, List<ClueInstance>> groundClues = new HashMap<>();
-		if (groundCluesJson != null)
+		boolean regionsChanged = false;
+
+		String regions = configManager.getConfiguration(CONFIG_GROUP, GROUND_CLUES_REGIONS_KEY);
+		if (regions != null && !regions.isEmpty())
 		{
-			try
+			for (String region : regions.split(","))
 			{
-				Type groundCluesType = new TypeToken<List<ClueInstanceData>>()
+				try
 				{
-				}.getType();
+					savedRegions.add(Integer.parseInt(region));
+				}
+				catch (NumberFormatException err)
+				{
+					regionsChanged = true;
+				}
+			}
+		}
 
-				List<ClueInstanceData> loadedGroundCluesData = gson.fromJson(groundCluesJson, groundCluesType);
+		regionsChanged |= saveJournaledRegions(profileId);
 
-				// Convert ClueInstanceData back to ClueInstance
-				for (ClueInstanceData clueData : loadedGroundCluesData)
+		String groundCluesData = configManager.getConfiguration(CONFIG_GROUP, GROUND_CLUES_KEY);
+		if (groundCluesData != null)
+		{
+			int skipped = addClues(groundClues, groundCluesData);
+			if (skipped >= 0)
+			{
+				legacyDataLoaded = true;
+				if (skipped > 0)
 				{
-					clueInstanceData.add(clueData);
+					log.warn("Skipped {} saved ground clues which couldn't be read", skipped);
+				}
+			}
+			else
+			{
+				configManager.unsetConfiguration(CONFIG_GROUP, GROUND_CLUES_KEY);
+			}
+		}
+
+		if (regionsChanged)
+		{
+			saveRegionList();
+		}
 
-					WorldPoint location = clueData.getLocation();
-					ClueInstance clue = new ClueInstance(clueData);
-					if (groundClues.containsKey(location))
-					{
-						groundClues.get(location).add(clue);
-						continue;
-					}
+		return groundClues;
+	}
 
-					List<ClueInstance> clueInstances = new ArrayList<>();
-					clueInstances.add(clue);
+	/**
+	 * @return the number of clues skipped as unreadable, or -1 if the region had nothing saved which could be read
+	 */
+	public synchronized int loadRegion(int regionId, Map<WorldPoint, List<ClueInstance>> groundClues)
+	{
+		if (!savedRegions.contains(regionId)) return -1;
 
-					groundClues.put(location, clueInstances);
-				}
-			} catch (Exception err)
+		String key = GROUND_CLUES_REGION_KEY_PREFIX + regionId;
+		String regionData = configManager.getConfiguration(CONFIG_GROUP, key);
+		int skipped = regionData == null ? -1 : addClues(groundClues, regionData);
+		if (skipped < 0)
+		{
+			// Drop a region which can't be read at all, rather than failing every load after
+			configManager.unsetConfiguration(CONFIG_GROUP, key);
+			savedRegions.remove(regionId);
+			saveRegionList();
+		}
+		else if (skipped > 0)
+		{
+			log.warn("Skipped {} saved ground clues in region {} which couldn't be read", skipped, regionId);
+		}
+		return skipped;
+	}
+
+	/**
+	 * Saves the journaled clues of each region which differ from those saved, as a crash left them unsaved.
+	 *
+	 * @return whether the regions with clues saved changed
+	 */
+	private boolean saveJournaledRegions(long profileId)
+	{
+		String noClues = clueInstanceCodec.encode(Collections.emptyList());
+		boolean regionsChanged = false;
+		for (Map.Entry<Integer, String> region : clueGroundJournal.read(profileId).entrySet())
+		{
+			String key = GROUND_CLUES_REGION_KEY_PREFIX + region.getKey();
+			String journaledData = region.getValue();
+			String savedData = configManager.getConfiguration(CONFIG_GROUP, key);
+			if (journaledData.equals(noClues))
 			{
-				groundClues.clear();
-				saveStateToConfig(new ArrayList<>());
+				if (savedData == null) continue;
+				configManager.unsetConfiguration(CONFIG_GROUP, key);
+				regionsChanged |= savedRegions.remove(region.getKey());
+			}
+			else if (!journaledData.equals(savedData))
+			{
+				configManager.setConfiguration(CONFIG_GROUP, key, journaledData);
+				regionsChanged |= savedRegions.add(region.getKey());
 			}
 		}
+		return regionsChanged;
+	}
 
-		return groundClues;
+	/**
+	 * @return the number of clues skipped as unreadable, or -1 if none of the data could be read
+	 */
+	private int addClues(Map<WorldPoint, List<ClueInstance>> groundClues, String groundCluesData)
+	{
+		try
+		{
+			// Convert ClueInstanceData back to ClueInstance as each is read
+			return clueInstanceCodec.decode(groundCluesData, clueData ->
+				groundClues.computeIfAbsent(clueData.getLocation(), k -> new ArrayList<>()).add(new ClueInstance(clueData)));
+		}
+		catch (IllegalArgumentException err)
+		{
+			return -1;
+		}
+	}
+
+	private void saveRegionList()
+	{
+		if (savedRegions.isEmpty())
+		{
+			configManager.unsetConfiguration(CONFIG_GROUP, GROUND_CLUES_REGIONS_KEY);
+			return;
+		}
+
+		String regions = savedRegions.stream()
+			.sorted()
+			.map(String::valueOf)
+			.collect(Collectors.joining(","));
+		configManager.setConfiguration(CONFIG_GROUP, GROUND_CLUES_REGIONS_KEY, regions);
 	}
 }
@@ -28,7 +28,6 @@ import com.cluedetails.filters.ClueTier;
 import java.awt.Color;
 import java.util.Collections;
 import java.util.List;
-import java.util.Objects;
 import java.util.concurrent.atomic.AtomicLong;
 import lombok.Data;
 import lombok.Getter;
@@ -44,6 +43,10 @@ import org.apache.commons.text.WordUtils;
 public class ClueInstance
 {
 	private static final AtomicLong sequenceGenerator = new AtomicLong();
+	private static final AtomicLong instanceIdGenerator = new AtomicLong();
+
+	// Identity for hashing. Unlike everything else here it never changes, so the clue can't get lost in a hash set
+	private final long instanceId = instanceIdGenerator.getAndIncrement();
 
 	@Setter
 	private List<Integer> clueIds; // Fake ID from ClueText
@@ -287,7 +290,7 @@ public class ClueInstance
 
 	public boolean isEnabled(ClueDetailsConfig config)
 	{
-		if (Clues.DEV_MODE_IDS.contains(itemId))
+		if (Clues.isDevModeId(itemId))
 		{
 			return config.beginnerDetails();
 		}
@@ -318,12 +321,12 @@ public class ClueInstance
 		else return getTier() != null;
 	}
 
-	@Override
-	public boolean equals(Object o)
+	/**
+	 * Whether the other clue is the same item with the same despawn time on the same tile, and so could be this clue.
+	 */
+	public boolean matches(ClueInstance clueInstance)
 	{
-		if (this == o) return true;
-		if (!(o instanceof ClueInstance)) return false;
-		ClueInstance clueInstance = (ClueInstance) o;
+		if (this == clueInstance) return true;
 
 		int diff1;
 		int diff2;
@@ -346,11 +349,18 @@ public class ClueInstance
 		return itemId == clueInstance.itemId && diff1 == diff2 && location.equals(clueInstance.location);
 	}
 
+	@Override
+	public boolean equals(Object o)
+	{
+		if (this == o) return true;
+		if (!(o instanceof ClueInstance)) return false;
+		return instanceId == ((ClueInstance) o).instanceId;
+	}
+
 	@Override
 	public int hashCode()
 	{
-		int despawnTime = getDespawnTick();
-		return Objects.hash(itemId, despawnTime, location);
+		return Long.hashCode(instanceId);
 	}
 
 	@Override
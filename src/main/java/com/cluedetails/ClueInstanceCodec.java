@@ -0,0 +1,341 @@
+/*
+ * Copyright (c) 2025, Zoinkwiz <https://github.com/Zoinkwiz>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cluedetails;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * Packs saved clues into a base64 string for the config.
+ * <p>
+ * After a version byte comes the record count and the lowest despawn tick. Records are sorted by tile, and each is
+ * prefixed with its length in bytes, then holds:
+ * <ul>
+ *     <li>x and y as the change from the previous record, zigzag varints</li>
+ *     <li>plane, one byte</li>
+ *     <li>item ID, varint</li>
+ *     <li>despawn tick less the lowest one, varint</li>
+ *     <li>clue ID count and clue IDs, varints</li>
+ * </ul>
+ * Values saved before this format are Gson JSON arrays, and are still read.
+ */
+@Singleton
+public class ClueInstanceCodec
+{
+	private static final int VERSION = 1;
+
+	// Sorting by tile lets coordinates be stored as small steps. The sort is stable, so clues on a tile keep their order
+	private static final Comparator<ClueInstanceData> TILE_ORDER = Comparator
+		.comparingInt(ClueInstanceData::getPlane)
+		.thenComparingInt(ClueInstanceData::getX)
+		.thenComparingInt(ClueInstanceData::getY);
+
+	private final Gson gson;
+
+	@Inject
+	public ClueInstanceCodec(Gson gson)
+	{
+		this.gson = gson;
+	}
+
+	public String encode(List<ClueInstanceData> clues)
+	{
+		List<ClueInstanceData> sortedClues = new ArrayList<>(clues);
+		sortedClues.sort(TILE_ORDER);
+
+		int baseTick = Integer.MAX_VALUE;
+		for (ClueInstanceData clue : sortedClues)
+		{
+			baseTick = Math.min(baseTick, clue.getDespawnTick());
+		}
+		if (sortedClues.isEmpty())
+		{
+			baseTick = 0;
+		}
+
+		Writer out = new Writer(8 + sortedClues.size() * 12);
+		Writer record = new Writer(16);
+		out.write(VERSION);
+		writeVarInt(out, sortedClues.size());
+		writeVarInt(out, zigzag(baseTick));
+
+		int lastX = 0;
+		int lastY = 0;
+		for (ClueInstanceData clue : sortedClues)
+		{
+			record.reset();
+			writeVarInt(record, zigzag(clue.getX() - lastX));
+			writeVarInt(record, zigzag(clue.getY() - lastY));
+			record.write(clue.getPlane());
+			writeVarInt(record, clue.getItemId());
+			writeVarInt(record, clue.getDespawnTick() - baseTick);
+
+			List<Integer> clueIds = clue.getClueIds();
+			int clueIdCount = clueIds == null ? 0 : clueIds.size();
+			writeVarInt(record, clueIdCount);
+			for (int i = 0; i < clueIdCount; i++)
+			{
+				writeVarInt(record, clueIds.get(i));
+			}
+
+			writeVarInt(out, record.size());
+			record.writeTo(out);
+			lastX = clue.getX();
+			lastY = clue.getY();
+		}
+
+		return Base64.getEncoder().encodeToString(out.toByteArray());
+	}
+
+	/**
+	 * Reads clues written by {@link #encode}, or as a Gson JSON array by older versions, handing each to the consumer
+	 * as it's read. A record which can't be read is skipped. If the records after it can't be found either, reading
+	 * stops there.
+	 *
+	 * @return the number of records skipped
+	 * @throws IllegalArgumentException if the value is in neither format
+	 */
+	public int decode(String value, Consumer<ClueInstanceData> consumer)
+	{
+		if (value.startsWith("["))
+		{
+			return decodeJson(value, consumer);
+		}
+
+		Reader in = new Reader(Base64.getDecoder().decode(value));
+		int version = in.readByte();
+		if (version != VERSION) throw new IllegalArgumentException("Unknown clue data version " + version);
+
+		int count = in.readVarInt();
+		int baseTick = unzigzag(in.readVarInt());
+
+		int skipped = 0;
+		int x = 0;
+		int y = 0;
+		for (int i = 0; i < count; i++)
+		{
+			int end;
+			try
+			{
+				int length = in.readVarInt();
+				end = in.position + length;
+				if (length < 0 || end > in.data.length) throw new IllegalArgumentException("Clue record past end of data");
+
+				// Coordinates are steps from the previous record, so a record is only skipped once they're known
+				x += unzigzag(in.readVarInt());
+				y += unzigzag(in.readVarInt());
+			}
+			catch (IllegalArgumentException err)
+			{
+				return skipped + count - i;
+			}
+
+			try
+			{
+				int plane = in.readByte();
+				if (plane > 3) throw new IllegalArgumentException("Invalid plane " + plane);
+				int itemId = in.readVarInt();
+				int despawnTick = baseTick + in.readVarInt();
+
+				int clueIdCount = in.readVarInt();
+				if (clueIdCount < 0 || clueIdCount > end - in.position)
+				{
+					throw new IllegalArgumentException("Clue ID count past end of record");
+				}
+				List<Integer> clueIds = new ArrayList<>(clueIdCount);
+				for (int j = 0; j < clueIdCount; j++)
+				{
+					clueIds.add(in.readVarInt());
+				}
+
+				// Anything later versions add to a record is skipped
+				in.seek(end);
+				consumer.accept(new ClueInstanceData(clueIds, itemId, despawnTick, x, y, plane));
+			}
+			catch (IllegalArgumentException err)
+			{
+				in.position = end;
+				skipped++;
+			}
+		}
+		return skipped;
+	}
+
+	private int decodeJson(String value, Consumer<ClueInstanceData> consumer)
+	{
+		TypeAdapter<JsonElement> elementAdapter = gson.getAdapter(JsonElement.class);
+		int skipped = 0;
+		int read = 0;
+		try (JsonReader in = new JsonReader(new StringReader(value)))
+		{
+			in.beginArray();
+			while (in.hasNext())
+			{
+				// Each record is read whole first, so one of the wrong shape can be skipped
+				JsonElement record = elementAdapter.read(in);
+				read++;
+				try
+				{
+					ClueInstanceData clue = gson.fromJson(record, ClueInstanceData.class);
+					if (clue == null || clue.getClueIds() == null || clue.getClueIds().contains(null))
+					{
+						throw new JsonParseException("Incomplete clue record");
+					}
+					consumer.accept(clue);
+				}
+				catch (JsonParseException err)
+				{
+					skipped++;
+				}
+			}
+		}
+		catch (IOException | JsonParseException | IllegalStateException err)
+		{
+			// The rest of the array can't be followed
+			if (read == 0) throw new IllegalArgumentException("Malformed clue data", err);
+			skipped++;
+		}
+		return skipped;
+	}
+
+	private static int zigzag(int value)
+	{
+		return (value << 1) ^ (value >> 31);
+	}
+
+	private static int unzigzag(int value)
+	{
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	private static void writeVarInt(Writer out, int value)
+	{
+		while ((value & ~0x7F) != 0)
+		{
+			out.write((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.write(value);
+	}
+
+	private static class Writer
+	{
+		private byte[] data;
+		private int size;
+
+		private Writer(int capacity)
+		{
+			data = new byte[capacity];
+		}
+
+		private void write(int b)
+		{
+			if (size == data.length)
+			{
+				data = Arrays.copyOf(data, size * 2);
+			}
+			data[size++] = (byte) b;
+		}
+
+		private void writeTo(Writer out)
+		{
+			for (int i = 0; i < size; i++)
+			{
+				out.write(data[i]);
+			}
+		}
+
+		private int size()
+		{
+			return size;
+		}
+
+		private void reset()
+		{
+			size = 0;
+		}
+
+		private byte[] toByteArray()
+		{
+			return Arrays.copyOf(data, size);
+		}
+	}
+
+	private static class Reader
+	{
+		private final byte[] data;
+		private int position;
+
+		private Reader(byte[] data)
+		{
+			this.data = data;
+		}
+
+		private int remaining()
+		{
+			return data.length - position;
+		}
+
+		private int readByte()
+		{
+			if (position >= data.length) throw new IllegalArgumentException("Unexpected end of clue data");
+			return data[position++] & 0xFF;
+		}
+
+		private int readVarInt()
+		{
+			int value = 0;
+			for (int shift = 0; shift < 32; shift += 7)
+			{
+				int b = readByte();
+				value |= (b & 0x7F) << shift;
+				if ((b & 0x80) == 0) return value;
+			}
+			throw new IllegalArgumentException("Malformed varint in clue data");
+		}
+
+		private void seek(int newPosition)
+		{
+			if (newPosition < position || newPosition > data.length)
+			{
+				throw new IllegalArgumentException("Clue record length doesn't match its contents");
+			}
+			position = newPosition;
+		}
+	}
+}
@@ -24,6 +24,7 @@
  */
 package com.cluedetails;
 
+import java.util.ArrayList;
 import java.util.List;
 import lombok.Data;
 import net.runelite.api.coords.WorldPoint;
@@ -38,9 +39,19 @@ public class ClueInstanceData
 	private int y;
 	private int plane;
 
+	public ClueInstanceData(List<Integer> clueIds, int itemId, int despawnTick, int x, int y, int plane)
+	{
+		this.clueIds = clueIds;
+		this.itemId = itemId;
+		this.despawnTick = despawnTick;
+		this.x = x;
+		this.y = y;
+		this.plane = plane;
+	}
+
 	public ClueInstanceData(ClueInstance clue)
 	{
-		this.clueIds = clue.getClueIds();
+		this.clueIds = new ArrayList<>(clue.getClueIds());
 		this.itemId = clue.getItemId();
 		this.despawnTick = clue.getDespawnTick();
 		if (clue.getLocation() == null) return;
@@ -201,7 +201,9 @@ public class ClueInventoryManager
 
 		// Beginner Map Clues all use the same ItemID, but the InterfaceID used to display them is unique
 		// Hot Cold Clues all use the same ItemID, but have a unique enum from Clue Scroll plugin
-		clueIds.add(Clues.forOtherIdGetId(otherId));
+		Integer clueId = Clues.forOtherIdGetId(otherId);
+		if (clueId == null) return;
+		clueIds.add(clueId);
 
 		ClueInstance clueInInv = cluesInInventory.get(itemId);
 		if (clueInInv == null) return;
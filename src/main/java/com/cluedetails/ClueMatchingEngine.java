@@ -0,0 +1,363 @@
+/*
+ * Copyright (c) 2025, Zoinkwiz <https://github.com/Zoinkwiz>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cluedetails;
+
+import java.util.Arrays;
+
+/**
+ * Re-attaches stored clues of a single item ID to the ground items on a tile.
+ * <p>
+ * Stored despawn times and ground despawn times differ by one shared offset, the ticks that passed
+ * while the tile wasn't being watched. Every candidate offset is scored by how many stored clues it
+ * pairs with a ground item of exactly that despawn time, and the offset leaving the fewest clues
+ * unpaired is used. Removing clues from anywhere in a stack only lowers that offset's score, so the
+ * remaining clues keep their identities.
+ * <p>
+ * This stands in for a minimum-cost assignment over despawn time differences. Such an assignment
+ * may pair clues at different offsets, say when a stored clue is gone and a nearby ground item has
+ * a slightly different time, which would give a clue a step that isn't its own. Requiring the one
+ * shared offset and exact times avoids that, and is also cheaper than solving the assignment.
+ * <p>
+ * Buffers are reused between calls, so a single instance must only be used from the client thread.
+ */
+class ClueMatchingEngine
+{
+	// A lone pairing could be a coincidence, so an offset must be confirmed by at least this many
+	private static final int MIN_MATCHES = 2;
+	private static final int INITIAL_BAND = 8;
+
+	private int storedCount;
+	private int groundCount;
+
+	private int[] storedTimes = new int[16];
+	private int[] storedLimits = new int[16];
+	private int[] groundTimes = new int[16];
+	private int[] assignment = new int[16];
+
+	// Sort keys are the despawn time in the high half and the original index in the low half
+	private long[] storedOrder = new long[16];
+	private long[] groundOrder = new long[16];
+
+	// Vote counts per candidate offset, open addressed with FREE marking an unused slot
+	private static final int FREE = Integer.MIN_VALUE;
+	private int[] voteKeys = newVoteKeys(128);
+	private int[] votes = new int[128];
+	private int[] usedSlots = new int[64];
+	private int usedSlotCount;
+
+	private int bestMatches;
+	private int bestOffset;
+
+	void reset()
+	{
+		storedCount = 0;
+		groundCount = 0;
+	}
+
+	/**
+	 * @param despawnTime the despawn time the clue was stored with
+	 * @param latestDespawnTick the latest tick a ground item could despawn on and still be this clue
+	 * @return the index to look the clue's match up by
+	 */
+	int addStored(int despawnTime, int latestDespawnTick)
+	{
+		if (storedCount == storedTimes.length)
+		{
+			int size = storedCount * 2;
+			storedTimes = Arrays.copyOf(storedTimes, size);
+			storedLimits = Arrays.copyOf(storedLimits, size);
+			assignment = Arrays.copyOf(assignment, size);
+			storedOrder = Arrays.copyOf(storedOrder, size);
+		}
+		storedTimes[storedCount] = despawnTime;
+		storedLimits[storedCount] = latestDespawnTick;
+		return storedCount++;
+	}
+
+	int addGround(int despawnTime)
+	{
+		if (groundCount == groundTimes.length)
+		{
+			int size = groundCount * 2;
+			groundTimes = Arrays.copyOf(groundTimes, size);
+			groundOrder = Arrays.copyOf(groundOrder, size);
+		}
+		groundTimes[groundCount] = despawnTime;
+		return groundCount++;
+	}
+
+	/**
+	 * Pairs the stored clues added since the last reset with the ground items.
+	 *
+	 * @return how many stored clues were paired
+	 */
+	int solve()
+	{
+		Arrays.fill(assignment, 0, storedCount, -1);
+		if (storedCount == 0 || groundCount == 0)
+		{
+			return 0;
+		}
+
+		// We assume it is the same clue. It is possible for it to be swapped with another clue though in
+		// another client/mobile, and this will be wrong
+		if (storedCount == 1 && groundCount == 1)
+		{
+			if (groundTimes[0] <= storedLimits[0])
+			{
+				assignment[0] = 0;
+				return 1;
+			}
+			return 0;
+		}
+
+		sortByTime(storedOrder, storedTimes, storedCount);
+		sortByTime(groundOrder, groundTimes, groundCount);
+
+		bestMatches = 0;
+		bestOffset = 0;
+		// Stacks that mostly survived line up close to rank for rank, so look there first
+		searchBand(Math.min(INITIAL_BAND, storedCount - 1), Math.min(INITIAL_BAND, groundCount - 1));
+
+		// An offset beating the best so far can only skip as many clues as that leaves unpaired, so its pairs all
+		// sit within this band. Votes inside it then still bound its matches, making the result exact
+		int target = Math.max(bestMatches, MIN_MATCHES - 1) + 1;
+		int storedSlack = storedCount - target;
+		int groundSlack = groundCount - target;
+		if (storedSlack > INITIAL_BAND || groundSlack > INITIAL_BAND)
+		{
+			searchBand(storedSlack, groundSlack);
+		}
+
+		if (bestMatches < MIN_MATCHES)
+		{
+			return 0;
+		}
+		return matchAtOffset(bestOffset, true);
+	}
+
+	/**
+	 * @return the index of the ground item paired with the stored clue, or -1 if it wasn't paired
+	 */
+	int getMatch(int storedIndex)
+	{
+		return assignment[storedIndex];
+	}
+
+	private static void sortByTime(long[] order, int[] times, int count)
+	{
+		for (int i = 0; i < count; i++)
+		{
+			order[i] = ((long) times[i] << 32) | i;
+		}
+		Arrays.sort(order, 0, count);
+	}
+
+	private static int timeOf(long key)
+	{
+		return (int) (key >> 32);
+	}
+
+	private static int indexOf(long key)
+	{
+		return (int) key;
+	}
+
+	/**
+	 * Counts votes from pairs whose ranks differ by at most the given slack either way, then tries the offsets
+	 * that could beat the best found so far. Votes bound the matches an offset can make, so trying them by most
+	 * votes first means the search can stop at the first one with no more votes than the best.
+	 */
+	private void searchBand(int storedSlack, int groundSlack)
+	{
+		if (storedSlack < 0 || groundSlack < 0)
+		{
+			return;
+		}
+
+		countVotes(storedSlack, groundSlack);
+		int slot;
+		while ((slot = nextCandidate(Math.max(bestMatches, MIN_MATCHES - 1))) != -1)
+		{
+			int offset = voteKeys[slot];
+			votes[slot] = 0;
+			int matches = matchAtOffset(offset, false);
+			if (matches > bestMatches)
+			{
+				bestMatches = matches;
+				bestOffset = offset;
+			}
+		}
+		clearVotes();
+	}
+
+	private void countVotes(int storedSlack, int groundSlack)
+	{
+		for (int s = 0; s < storedCount; s++)
+		{
+			int storedTime = timeOf(storedOrder[s]);
+			int limit = storedLimits[indexOf(storedOrder[s])];
+			int last = Math.min(groundCount - 1, s + groundSlack);
+			for (int g = Math.max(0, s - storedSlack); g <= last; g++)
+			{
+				int groundTime = timeOf(groundOrder[g]);
+				// Ground is sorted, so no later item can be this clue either
+				if (groundTime > limit)
+				{
+					break;
+				}
+				long offset = (long) storedTime - groundTime;
+				if (offset > FREE && offset <= Integer.MAX_VALUE)
+				{
+					addVote((int) offset);
+				}
+			}
+		}
+	}
+
+	private void addVote(int offset)
+	{
+		int mask = voteKeys.length - 1;
+		int slot = hash(offset) & mask;
+		while (voteKeys[slot] != FREE)
+		{
+			if (voteKeys[slot] == offset)
+			{
+				votes[slot]++;
+				return;
+			}
+			slot = (slot + 1) & mask;
+		}
+		voteKeys[slot] = offset;
+		votes[slot] = 1;
+		if (usedSlotCount == usedSlots.length)
+		{
+			usedSlots = Arrays.copyOf(usedSlots, usedSlotCount * 2);
+		}
+		usedSlots[usedSlotCount++] = slot;
+		if (usedSlotCount * 2 > voteKeys.length)
+		{
+			growVotes();
+		}
+	}
+
+	private void growVotes()
+	{
+		int[] oldKeys = voteKeys;
+		int[] oldVotes = votes;
+		voteKeys = newVoteKeys(oldKeys.length * 2);
+		votes = new int[oldKeys.length * 2];
+		int mask = voteKeys.length - 1;
+		for (int i = 0; i < usedSlotCount; i++)
+		{
+			int oldSlot = usedSlots[i];
+			int key = oldKeys[oldSlot];
+			int slot = hash(key) & mask;
+			while (voteKeys[slot] != FREE)
+			{
+				slot = (slot + 1) & mask;
+			}
+			voteKeys[slot] = key;
+			votes[slot] = oldVotes[oldSlot];
+			usedSlots[i] = slot;
+		}
+	}
+
+	/**
+	 * @return the slot of the offset with the most votes above minVotes, preferring the smallest offset, or -1
+	 */
+	private int nextCandidate(int minVotes)
+	{
+		int best = -1;
+		for (int i = 0; i < usedSlotCount; i++)
+		{
+			int slot = usedSlots[i];
+			if (votes[slot] > minVotes
+				|| (best != -1 && votes[slot] == minVotes && voteKeys[slot] < voteKeys[best]))
+			{
+				best = slot;
+				minVotes = votes[slot];
+			}
+		}
+		return best;
+	}
+
+	private static int[] newVoteKeys(int size)
+	{
+		int[] keys = new int[size];
+		Arrays.fill(keys, FREE);
+		return keys;
+	}
+
+	private static int hash(int key)
+	{
+		int h = key * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	private void clearVotes()
+	{
+		for (int i = 0; i < usedSlotCount; i++)
+		{
+			voteKeys[usedSlots[i]] = FREE;
+		}
+		usedSlotCount = 0;
+	}
+
+	/**
+	 * Pairs each stored clue with a ground item despawning exactly offset ticks earlier. Items sharing a despawn
+	 * time are interchangeable, so walking both sorted lists together gives the most pairs for the offset.
+	 */
+	private int matchAtOffset(int offset, boolean record)
+	{
+		int matches = 0;
+		int g = 0;
+		for (int s = 0; s < storedCount && g < groundCount; s++)
+		{
+			int storedIndex = indexOf(storedOrder[s]);
+			long target = (long) timeOf(storedOrder[s]) - offset;
+			while (g < groundCount && timeOf(groundOrder[g]) < target)
+			{
+				g++;
+			}
+			if (g == groundCount || timeOf(groundOrder[g]) != target)
+			{
+				continue;
+			}
+			// If item will despawn later than the stored clue, it can't be it
+			if (timeOf(groundOrder[g]) > storedLimits[storedIndex])
+			{
+				continue;
+			}
+			if (record)
+			{
+				assignment[storedIndex] = indexOf(groundOrder[g]);
+			}
+			matches++;
+			g++;
+		}
+		return matches;
+	}
+}
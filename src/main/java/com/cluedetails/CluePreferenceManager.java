@@ -28,7 +28,14 @@ import static com.cluedetails.ClueDetailsConfig.CLUE_ITEMS_CONFIG;
 import static com.cluedetails.ClueDetailsConfig.CLUE_WIDGETS_CONFIG;
 
 import com.google.gson.reflect.TypeToken;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.*;
 
 import javax.inject.Inject;
@@ -41,6 +48,11 @@ public class CluePreferenceManager
 	private final ClueDetailsPlugin clueDetailsPlugin;
 	private final ConfigManager configManager;
 
+	// Parsed item and widget preferences by clue ID, as these are checked for every render and menu entry.
+	// An empty value means the clue has none set.
+	private final Map<Integer, int[]> itemsCache = new ConcurrentHashMap<>();
+	private final Map<Integer, Set<WidgetId>> widgetsCache = new ConcurrentHashMap<>();
+
 	@Inject
 	public CluePreferenceManager(ClueDetailsPlugin clueDetailsPlugin, ConfigManager configManager)
 	{
@@ -61,24 +73,42 @@ public class CluePreferenceManager
 
 	public boolean itemsPreferenceContainsItem(int clueID, int itemID)
 	{
-		List<Integer> clueItemIds = getItemsPreference(clueID);
-
-		if (clueItemIds != null)
+		for (int clueItemId : getItemIds(clueID))
 		{
-			return getItemsPreference(clueID).contains(itemID);
+			if (clueItemId == itemID)
+			{
+				return true;
+			}
 		}
 		return false;
 	}
 
-	public List<Integer> getItemsPreference(int clueID)
+	/**
+	 * Gets the item IDs set for a clue, which must not be modified.
+	 */
+	public int[] getItemIds(int clueID)
 	{
-		String clueItems = configManager.getConfiguration(CLUE_ITEMS_CONFIG, String.valueOf(clueID));
+		return itemsCache.computeIfAbsent(clueID, id ->
+		{
+			String clueItems = configManager.getConfiguration(CLUE_ITEMS_CONFIG, String.valueOf(id));
+			List<Integer> itemIds = clueDetailsPlugin.gson.fromJson(clueItems, new TypeToken<List<Integer>>(){}.getType());
+			return toItemIds(itemIds);
+		});
+	}
 
-		return clueDetailsPlugin.gson.fromJson(clueItems, new TypeToken<List<Integer>>(){}.getType());
+	public List<Integer> getItemsPreference(int clueID)
+	{
+		int[] itemIds = getItemIds(clueID);
+		if (itemIds.length == 0)
+		{
+			return null;
+		}
+		return Arrays.stream(itemIds).boxed().collect(Collectors.toList());
 	}
 
 	public void saveItemsPreference(int clueID, List<Integer> newItems)
 	{
+		itemsCache.put(clueID, toItemIds(newItems));
 		if (newItems.isEmpty())
 		{
 			configManager.unsetConfiguration(CLUE_ITEMS_CONFIG, String.valueOf(clueID));
@@ -90,28 +120,45 @@ public class CluePreferenceManager
 		}
 	}
 
+	private static int[] toItemIds(List<Integer> itemIds)
+	{
+		if (itemIds == null)
+		{
+			return new int[0];
+		}
+		return itemIds.stream().filter(itemId -> itemId != null).mapToInt(Integer::intValue).toArray();
+	}
+
 	public boolean widgetsPreferenceContainsWidget(int clueID, WidgetId widgetId)
 	{
-		List<WidgetId> clueWidgetIds = getWidgetsPreference(clueID);
+		return getWidgetIds(clueID).contains(widgetId);
+	}
 
-		if (clueWidgetIds != null)
+	private Set<WidgetId> getWidgetIds(int clueID)
+	{
+		return widgetsCache.computeIfAbsent(clueID, id ->
 		{
-			return clueWidgetIds.contains(widgetId);
-		}
-		return false;
+			String clueWidgets = configManager.getConfiguration(CLUE_WIDGETS_CONFIG, String.valueOf(id));
+			List<WidgetId> widgetIds = clueDetailsPlugin.gson.fromJson(clueWidgets, new TypeToken<List<WidgetId>>(){}.getType());
+			return toWidgetIds(widgetIds);
+		});
 	}
 
 	public List<WidgetId> getWidgetsPreference(int clueID)
 	{
-		String clueWidgets = configManager.getConfiguration(CLUE_WIDGETS_CONFIG, String.valueOf(clueID));
-
-		return clueDetailsPlugin.gson.fromJson(clueWidgets, new TypeToken<List<WidgetId>>(){}.getType());
+		Set<WidgetId> widgetIds = getWidgetIds(clueID);
+		if (widgetIds.isEmpty())
+		{
+			return null;
+		}
+		return new ArrayList<>(widgetIds);
 	}
 
 	public void saveWidgetsPreference(int clueID, List<WidgetId> newWidgets)
 	{
 		if (newWidgets.isEmpty())
 		{
+			widgetsCache.put(clueID, Collections.emptySet());
 			configManager.unsetConfiguration(CLUE_WIDGETS_CONFIG, String.valueOf(clueID));
 		}
 		else
@@ -120,8 +167,53 @@ public class CluePreferenceManager
 				.stream()
 				.map(w -> new WidgetId(w.getComponentId(), w.getChildIndex() == null || w.getChildIndex() == -1 ? null : w.getChildIndex()))
 				.collect(Collectors.toList());
+			widgetsCache.put(clueID, toWidgetIds(mappedWidgetIds));
 			String clueWidgetIdsJson = clueDetailsPlugin.gson.toJson(mappedWidgetIds);
 			configManager.setConfiguration(CLUE_WIDGETS_CONFIG, String.valueOf(clueID), clueWidgetIdsJson);
 		}
 	}
+
+	private static Set<WidgetId> toWidgetIds(List<WidgetId> widgetIds)
+	{
+		if (widgetIds == null)
+		{
+			return Collections.emptySet();
+		}
+		return Collections.unmodifiableSet(new LinkedHashSet<>(widgetIds));
+	}
+
+	/**
+	 * Drops the parsed preference for a config key, so it is read again after changing outside this manager.
+	 */
+	public void invalidate(String group, String key)
+	{
+		Map<Integer, ?> cache;
+		if (CLUE_ITEMS_CONFIG.equals(group))
+		{
+			cache = itemsCache;
+		}
+		else if (CLUE_WIDGETS_CONFIG.equals(group))
+		{
+			cache = widgetsCache;
+		}
+		else
+		{
+			return;
+		}
+
+		try
+		{
+			cache.remove(Integer.parseInt(key));
+		}
+		catch (NumberFormatException err)
+		{
+			cache.clear();
+		}
+	}
+
+	public void invalidateAll()
+	{
+		itemsCache.clear();
+		widgetsCache.clear();
+	}
 }
@@ -0,0 +1,381 @@
+/*
+ * Copyright (c) 2025, Zoinkwiz <https://github.com/Zoinkwiz>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cluedetails;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.client.config.ConfigManager;
+import net.runelite.client.config.ConfigProfile;
+
+/**
+ * Writes ground and bank clue saves, and the ground clue journal, on a background thread. Callers hand over a snapshot taken on the client thread,
+ * and requests made before the previous one has been written are merged so they are only written once.
+ * <p>
+ * Each request is tied to the config profile the tracked clues were loaded from. Config can only be written to the
+ * active profile, so saves for a profile switched away from are dropped, and that profile's journal keeps the changes.
+ */
+@Slf4j
+@Singleton
+public class ClueSaveExecutor
+{
+	private static final long LOAD_WAIT_SECONDS = 5;
+
+	private final ConfigManager configManager;
+	private final ClueGroundSaveDataManager clueGroundSaveDataManager;
+	private final ClueBankSaveDataManager clueBankSaveDataManager;
+	private final ClueGroundJournal clueGroundJournal;
+
+	// Guarded by this
+	private ThreadPoolExecutor executor;
+	private PendingWrites pending;
+
+	// The config profile the tracked clues were loaded from, set on the client thread
+	private volatile long profileId;
+
+	@Inject
+	public ClueSaveExecutor(ConfigManager configManager, ClueGroundSaveDataManager clueGroundSaveDataManager,
+		ClueBankSaveDataManager clueBankSaveDataManager, ClueGroundJournal clueGroundJournal)
+	{
+		this.configManager = configManager;
+		this.clueGroundSaveDataManager = clueGroundSaveDataManager;
+		this.clueBankSaveDataManager = clueBankSaveDataManager;
+		this.clueGroundJournal = clueGroundJournal;
+	}
+
+	public synchronized void startUp()
+	{
+		if (executor == null || executor.isShutdown())
+		{
+			executor = new ThreadPoolExecutor(1, 1, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable ->
+			{
+				Thread thread = new Thread(runnable, "clue-details-save");
+				thread.setDaemon(true);
+				return thread;
+			});
+			executor.allowCoreThreadTimeOut(true);
+			// Anything requested while stopped was never scheduled
+			pending = null;
+		}
+		profileId = getActiveProfileId();
+	}
+
+	/**
+	 * Stops taking requests. Those already made are still written.
+	 */
+	public synchronized void shutDown()
+	{
+		if (executor != null)
+		{
+			executor.shutdown();
+		}
+	}
+
+	/**
+	 * Ties requests made from now on to the active config profile, which clues are about to be loaded from.
+	 */
+	public void useActiveProfile()
+	{
+		profileId = getActiveProfileId();
+	}
+
+	/**
+	 * @return the ID of the config profile the tracked clues were loaded from
+	 */
+	public long getProfileId()
+	{
+		return profileId;
+	}
+
+	private long getActiveProfileId()
+	{
+		ConfigProfile profile = configManager.getProfile();
+		return profile == null ? 0 : profile.getId();
+	}
+
+	/**
+	 * @param changedRegions the current clues of each region changed since the last save, keyed by region ID
+	 */
+	public synchronized void saveGroundClues(Map<Integer, List<ClueInstanceData>> changedRegions)
+	{
+		PendingWrites writes = pendingWrites();
+		if (writes.groundRegions == null)
+		{
+			writes.groundRegions = new HashMap<>();
+		}
+		// A region's latest clues replace any still waiting to be written
+		writes.groundRegions.putAll(changedRegions);
+
+		// Journal writes made since an earlier save in this batch now come before this one
+		if (writes.journalAfterSave != null)
+		{
+			writes.journalBeforeSave().addAll(writes.journalAfterSave);
+			writes.journalAfterSave = null;
+		}
+	}
+
+	/**
+	 * @param changedRegions the current clues of each region changed since they were last journaled, keyed by region ID
+	 */
+	public synchronized void appendGroundJournal(Map<Integer, List<ClueInstanceData>> changedRegions)
+	{
+		pendingWrites().journalWrites().append(changedRegions);
+	}
+
+	/**
+	 * @param regions the current clues of every loaded region, keyed by region ID
+	 */
+	public synchronized void compactGroundJournal(Map<Integer, List<ClueInstanceData>> regions)
+	{
+		pendingWrites().journalWrites().compact(regions);
+	}
+
+	public synchronized void saveBankClues(List<ClueInstanceData> bankClues)
+	{
+		pendingWrites().bankClues = bankClues;
+	}
+
+	/**
+	 * @return a future which completes once every save requested so far has been written
+	 */
+	public synchronized Future<?> flush()
+	{
+		if (executor == null)
+		{
+			return CompletableFuture.completedFuture(null);
+		}
+		if (executor.isShutdown())
+		{
+			ThreadPoolExecutor stoppedExecutor = executor;
+			return CompletableFuture.runAsync(() ->
+			{
+				try
+				{
+					stoppedExecutor.awaitTermination(LOAD_WAIT_SECONDS, TimeUnit.SECONDS);
+				}
+				catch (InterruptedException err)
+				{
+					Thread.currentThread().interrupt();
+				}
+			});
+		}
+		return executor.submit(() -> {});
+	}
+
+	/**
+	 * Waits for requested saves to be written, so a load doesn't read config a save is about to replace.
+	 */
+	public void awaitPendingSaves()
+	{
+		try
+		{
+			flush().get(LOAD_WAIT_SECONDS, TimeUnit.SECONDS);
+		}
+		catch (InterruptedException err)
+		{
+			Thread.currentThread().interrupt();
+		}
+		catch (ExecutionException | TimeoutException err)
+		{
+			log.warn("Timed out waiting for clue saves to be written", err);
+		}
+	}
+
+	/**
+	 * The requests not yet being written for the current profile, scheduling a write when a new batch is started.
+	 */
+	private PendingWrites pendingWrites()
+	{
+		if (pending != null && pending.profileId == profileId)
+		{
+			return pending;
+		}
+
+		PendingWrites writes = new PendingWrites(profileId);
+		pending = writes;
+		if (executor == null || executor.isShutdown())
+		{
+			log.warn("Clue saves requested while stopped won't be written");
+			return writes;
+		}
+		executor.execute(() -> write(writes));
+		return writes;
+	}
+
+	private void write(PendingWrites writes)
+	{
+		// Later requests start a new batch from here on
+		synchronized (this)
+		{
+			if (pending == writes)
+			{
+				pending = null;
+			}
+		}
+
+		// The journal is written first, so it never falls behind the saved config
+		if (writes.journalBeforeSave != null)
+		{
+			writes.journalBeforeSave.write(clueGroundJournal, writes.profileId);
+		}
+
+		boolean profileActive = writes.profileId == getActiveProfileId();
+		if (!profileActive && (writes.groundRegions != null || writes.bankClues != null))
+		{
+			log.debug("Not saving clues for a config profile which is no longer active");
+		}
+
+		if (writes.groundRegions != null && profileActive)
+		{
+			try
+			{
+				clueGroundSaveDataManager.saveStateToConfig(writes.groundRegions);
+				// Everything journaled so far is now saved, so replaying it later could only bring back stale clues
+				clueGroundJournal.clear(writes.profileId);
+			}
+			catch (Exception err)
+			{
+				log.warn("Failed to save ground clues", err);
+			}
+		}
+
+		if (writes.journalAfterSave != null)
+		{
+			writes.journalAfterSave.write(clueGroundJournal, writes.profileId);
+		}
+
+		if (writes.bankClues != null && profileActive)
+		{
+			try
+			{
+				clueBankSaveDataManager.saveStateToConfig(writes.bankClues);
+			}
+			catch (Exception err)
+			{
+				log.warn("Failed to save bank clues", err);
+			}
+		}
+	}
+
+	/**
+	 * Requests for one config profile, merged until they are written. Journal writes are kept apart by whether they
+	 * were requested before or after the ground save, as the journal is cleared once that save is written.
+	 */
+	private static class PendingWrites
+	{
+		private final long profileId;
+		private Map<Integer, List<ClueInstanceData>> groundRegions;
+		private JournalWrites journalBeforeSave;
+		private JournalWrites journalAfterSave;
+		private List<ClueInstanceData> bankClues;
+
+		PendingWrites(long profileId)
+		{
+			this.profileId = profileId;
+		}
+
+		JournalWrites journalBeforeSave()
+		{
+			if (journalBeforeSave == null)
+			{
+				journalBeforeSave = new JournalWrites();
+			}
+			return journalBeforeSave;
+		}
+
+		JournalWrites journalWrites()
+		{
+			if (groundRegions == null)
+			{
+				return journalBeforeSave();
+			}
+
+			if (journalAfterSave == null)
+			{
+				journalAfterSave = new JournalWrites();
+			}
+			return journalAfterSave;
+		}
+	}
+
+	/**
+	 * Journal writes merged so they are only written once: a snapshot replacing the journal, then appended regions.
+	 */
+	private static class JournalWrites
+	{
+		private Map<Integer, List<ClueInstanceData>> snapshot;
+		private Map<Integer, List<ClueInstanceData>> regions;
+
+		void append(Map<Integer, List<ClueInstanceData>> changedRegions)
+		{
+			if (regions == null)
+			{
+				regions = new HashMap<>();
+			}
+			regions.putAll(changedRegions);
+		}
+
+		void compact(Map<Integer, List<ClueInstanceData>> allRegions)
+		{
+			// The snapshot already holds any changes still waiting to be appended
+			snapshot = allRegions;
+			regions = null;
+		}
+
+		void addAll(JournalWrites later)
+		{
+			if (later.snapshot != null)
+			{
+				compact(later.snapshot);
+			}
+			if (later.regions != null)
+			{
+				append(later.regions);
+			}
+		}
+
+		void write(ClueGroundJournal journal, long profileId)
+		{
+			if (snapshot != null)
+			{
+				journal.writeSnapshot(profileId, snapshot);
+			}
+			if (regions != null)
+			{
+				journal.append(profileId, regions);
+			}
+		}
+	}
+}
@@ -24,19 +24,19 @@
  */
 package com.cluedetails;
 
-import static com.cluedetails.ClueDetailsConfig.CLUE_ITEMS_CONFIG;
-
 import com.cluedetails.filters.ClueTier;
 import com.cluedetails.filters.OrRequirement;
 import com.google.common.collect.ImmutableList;
-import com.google.gson.reflect.TypeToken;
 import java.awt.Color;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.function.ToIntFunction;
 import java.util.stream.Collectors;
 
 import javax.inject.Inject;
@@ -1230,30 +1230,157 @@ public class Clues
 		ItemID.DAEYALT_ESSENCE
 	);
 
-	private static Map<Integer, List<Clues>> itemIdClueCache = new HashMap<>();
-	private static Map<Integer, Clues> clueIdClueCache = new HashMap<>();
-	private static Map<Integer, Clues> unfilteredClueCache = new HashMap<>();
+	private static final BitSet TRACKED_CLUE_ID_SET = toBitSet(TRACKED_CLUE_IDS);
+	private static final BitSet TRACKED_TORN_CLUE_ID_SET = toBitSet(TRACKED_TORN_CLUE_IDS);
+	private static final BitSet DEV_MODE_ID_SET = toBitSet(DEV_MODE_IDS);
+
+	// Built once from CLUES and indexed by ID, as these are looked up for every item, menu entry and render.
+	// Each entry holds the first clue of each tier in listing order, so the first enabled one is found without a rebuild.
+	private static final Clues[][] ITEM_ID_INDEX = indexClues(CLUES.stream()
+		.filter(clue -> clue.getItemID() >= 2677) // Ignore InterfaceID and HotColdLocation
+		.collect(Collectors.toList()), Clues::getItemID);
+	private static final Clues[][] CLUE_ID_INDEX = indexClues(CLUES, Clues::getClueID);
+	private static final int[] ITEM_ID_TIER_MASKS = tierMasks(ITEM_ID_INDEX);
+	private static final int ALL_TIERS = (1 << ClueTier.values().length) - 1;
+
+	// Bit per ClueTier ordinal. Read once per lookup so each sees a single set of tiers.
+	private static volatile int enabledTierMask = ALL_TIERS;
+	// Bumped whenever the enabled tiers change, so results built from the filtered lookups can tell they're stale
+	private static volatile int enabledTiersEpoch;
+	public static final String DETAIL_TEXT_GROUP = "clue-details-text";
+	public static final String DETAIL_COLOR_GROUP = "clue-details-color";
+
+	// Custom text and colours set for each clue, indexed by clue ID, so rendering doesn't go through config
+	private static volatile String[] detailTextOverrides;
+	private static volatile Color[] detailColorOverrides;
+
+	// Keyed by clue text in lower case
+	private static final Map<String, Clues[]> TEXT_INDEX = indexClueText(CLUES);
+
+	/**
+	 * Applies the clue tiers enabled in config to the filtered lookups.
+	 */
+	public static void updateEnabledTiers()
+	{
+		int mask = 0;
+		for (ClueTier tier : getEnabledClueTiers())
+		{
+			mask |= tierBit(tier);
+		}
+		if (mask != enabledTierMask)
+		{
+			enabledTierMask = mask;
+			enabledTiersEpoch++;
+		}
+	}
+
+	public static int getEnabledTiersEpoch()
+	{
+		return enabledTiersEpoch;
+	}
 
-	public static void rebuildFilteredCluesCache()
+	private static int tierBit(ClueTier tier)
 	{
-		List<ClueTier> enabledClueTiers = getEnabledClueTiers();
+		return 1 << tier.ordinal();
+	}
 
-		List<Clues> enabledClues = Clues.CLUES.stream()
-				.filter(c -> enabledClueTiers.contains(c.getClueTier()))
-				.collect(Collectors.toList());
+	/**
+	 * Groups clues by ID, keeping the first listed clue of each tier.
+	 */
+	private static Clues[][] indexClues(List<Clues> clues, ToIntFunction<Clues> getId)
+	{
+		int maxId = clues.stream().mapToInt(getId).max().orElse(-1);
+		Clues[][] index = new Clues[maxId + 1][];
+		for (Clues clue : clues)
+		{
+			int id = getId.applyAsInt(clue);
+			index[id] = addFirstOfTier(index[id], clue);
+		}
+		return index;
+	}
+
+	private static Map<String, Clues[]> indexClueText(List<Clues> clues)
+	{
+		Map<String, Clues[]> index = new HashMap<>();
+		for (Clues clue : clues)
+		{
+			if (clue.getClueText() != null)
+			{
+				index.merge(clue.getClueText().toLowerCase(Locale.ROOT), new Clues[]{ clue },
+					(existing, added) -> addFirstOfTier(existing, added[0]));
+			}
+		}
+		return index;
+	}
+
+	private static Clues[] addFirstOfTier(Clues[] clues, Clues clue)
+	{
+		if (clues == null)
+		{
+			return new Clues[]{ clue };
+		}
+		for (Clues existing : clues)
+		{
+			if (existing.getClueTier() == clue.getClueTier())
+			{
+				return clues;
+			}
+		}
+		Clues[] added = Arrays.copyOf(clues, clues.length + 1);
+		added[clues.length] = clue;
+		return added;
+	}
+
+	private static int[] tierMasks(Clues[][] index)
+	{
+		int[] masks = new int[index.length];
+		for (int id = 0; id < index.length; id++)
+		{
+			if (index[id] != null)
+			{
+				for (Clues clue : index[id])
+				{
+					masks[id] |= tierBit(clue.getClueTier());
+				}
+			}
+		}
+		return masks;
+	}
+
+	/**
+	 * Finds the first listed clue whose tier is in the mask. Where clues share an ID or text, the first listed is found.
+	 */
+	private static Clues firstInTiers(Clues[] clues, int tierMask)
+	{
+		if (clues == null)
+		{
+			return null;
+		}
+		for (Clues clue : clues)
+		{
+			if ((tierBit(clue.getClueTier()) & tierMask) != 0)
+			{
+				return clue;
+			}
+		}
+		return null;
+	}
 
-		itemIdClueCache = enabledClues
-				.stream()
-				.filter(clue -> clue.getItemID() >= 2677) // Ignore InterfaceID and HotColdLocation
-				.collect(Collectors.groupingBy(Clues::getItemID));
+	private static Clues getIndexed(Clues[][] index, int id, int tierMask)
+	{
+		return id >= 0 && id < index.length ? firstInTiers(index[id], tierMask) : null;
+	}
 
-		clueIdClueCache = enabledClues
-				.stream()
-				.collect(Collectors.toMap(Clues::getClueID, clue -> clue));
+	private static BitSet toBitSet(Collection<Integer> ids)
+	{
+		BitSet bitSet = new BitSet();
+		ids.forEach(bitSet::set);
+		return bitSet;
+	}
 
-		unfilteredClueCache = Clues.CLUES
-				.stream()
-				.collect(Collectors.toMap(Clues::getClueID, clue -> clue));
+	private static boolean contains(BitSet ids, int id)
+	{
+		return id >= 0 && ids.get(id);
 	}
 
 	private static List<ClueTier> getEnabledClueTiers()
@@ -1289,7 +1416,7 @@ public class Clues
 
 	public static Clues forItemId(int itemId)
 	{
-		Clues clue = clueIdClueCache.get(itemId);
+		Clues clue = getIndexed(CLUE_ID_INDEX, itemId, enabledTierMask);
 		if (clue != null && clue.clueID == -1)
 		{
 			return clue;
@@ -1299,12 +1426,12 @@ public class Clues
 
 	public static Clues forClueId(int clueId)
 	{
-		return unfilteredClueCache.get(clueId);
+		return getIndexed(CLUE_ID_INDEX, clueId, ALL_TIERS);
 	}
 
 	public static Clues forClueIdFiltered(int clueId)
 	{
-		return clueIdClueCache.get(clueId);
+		return getIndexed(CLUE_ID_INDEX, clueId, enabledTierMask);
 	}
 
 	public Integer getClueID()
@@ -1318,68 +1445,150 @@ public class Clues
 
 	public static Integer forTextGetId(String rawText)
 	{
-		final String text = Text.sanitizeMultilineText(rawText).toLowerCase();
+		final String text = Text.sanitizeMultilineText(rawText).toLowerCase(Locale.ROOT);
 
-		for (Clues clue : clueIdClueCache.values())
-		{
-			if (text.equalsIgnoreCase(clue.getClueText()))
-			{
-				return clue.getClueID();
-			}
-		}
+		Clues clue = firstInTiers(TEXT_INDEX.get(text), enabledTierMask);
+		return clue == null ? null : clue.getClueID();
+	}
 
-		return null;
+	/**
+	 * Finds a clue of any tier by its text, ignoring case.
+	 */
+	public static Clues forTextUnfiltered(String text)
+	{
+		return firstInTiers(TEXT_INDEX.get(text.toLowerCase(Locale.ROOT)), ALL_TIERS);
 	}
 
 	public static Integer forOtherIdGetId(int otherId)
 	{
-		List<Clues> clues = itemIdClueCache.get(otherId);
-		if (!clues.isEmpty())
+		Clues clue = getIndexed(ITEM_ID_INDEX, otherId, enabledTierMask);
+		if (clue != null)
 		{
-			return clues.get(0).clueID;
+			return clue.clueID;
 		}
 		return null;
 	}
 
 	public String getDetail(ConfigManager configManager)
 	{
-		String text = configManager.getConfiguration("clue-details-text", String.valueOf(getClueID()));
+		String[] textOverrides = detailTextOverrides;
+		if (textOverrides == null)
+		{
+			loadDetailOverrides(configManager);
+			textOverrides = detailTextOverrides;
+		}
+
+		String text = textOverrides[getClueID()];
 		if (text != null) return text;
 		return getClueDetail();
 	}
 
 	public Color getDetailColor(ConfigManager configManager)
 	{
-		String colorCode = configManager.getConfiguration("clue-details-color", String.valueOf(getClueID()));
-		if (colorCode != null) return Color.decode(colorCode);
+		Color[] colorOverrides = detailColorOverrides;
+		if (colorOverrides == null)
+		{
+			loadDetailOverrides(configManager);
+			colorOverrides = detailColorOverrides;
+		}
+
+		Color color = colorOverrides[getClueID()];
+		if (color != null) return color;
 		return getClueDetailColor();
 	}
 
-	public List<Integer> getItems(ClueDetailsPlugin plugin, ConfigManager configManager)
+	private static void loadDetailOverrides(ConfigManager configManager)
 	{
-		String items = configManager.getConfiguration(CLUE_ITEMS_CONFIG, String.valueOf(getClueID()));
-		if (items != null)
+		int size = CLUES.stream().mapToInt(Clues::getClueID).max().orElse(-1) + 1;
+		String[] textOverrides = new String[size];
+		Color[] colorOverrides = new Color[size];
+		for (Clues clue : CLUES)
 		{
-			return plugin.gson.fromJson(items, new TypeToken<List<Integer>>()
-			{
-			}.getType());
+			String clueId = String.valueOf(clue.getClueID());
+			textOverrides[clue.getClueID()] = configManager.getConfiguration(DETAIL_TEXT_GROUP, clueId);
+			colorOverrides[clue.getClueID()] = parseColor(configManager.getConfiguration(DETAIL_COLOR_GROUP, clueId));
+		}
+		detailTextOverrides = textOverrides;
+		detailColorOverrides = colorOverrides;
+	}
+
+	/**
+	 * Updates the custom text or colour of a clue after its config changes.
+	 */
+	public static void updateDetailOverride(String group, String key, String value)
+	{
+		String[] textOverrides = detailTextOverrides;
+		Color[] colorOverrides = detailColorOverrides;
+		// Nothing is cached yet, so the new value will be read along with the rest
+		if (textOverrides == null || colorOverrides == null) return;
+
+		int clueId;
+		try
+		{
+			clueId = Integer.parseInt(key);
+		}
+		catch (NumberFormatException err)
+		{
+			return;
+		}
+		if (clueId < 0 || clueId >= textOverrides.length) return;
+
+		if (DETAIL_TEXT_GROUP.equals(group))
+		{
+			textOverrides[clueId] = value;
+		}
+		else if (DETAIL_COLOR_GROUP.equals(group))
+		{
+			colorOverrides[clueId] = parseColor(value);
+		}
+	}
+
+	/**
+	 * Drops the cached custom text and colours, so they're read from config again on next use.
+	 */
+	public static void clearDetailOverrides()
+	{
+		detailTextOverrides = null;
+		detailColorOverrides = null;
+	}
+
+	private static Color parseColor(String colorCode)
+	{
+		if (colorCode == null) return null;
+		try
+		{
+			return Color.decode(colorCode);
+		}
+		catch (NumberFormatException err)
+		{
+			return null;
 		}
-		return null;
 	}
 
 	public static boolean isClue(int itemId, boolean isDeveloperMode)
 	{
-		return itemIdClueCache.containsKey(itemId) || (isDeveloperMode && DEV_MODE_IDS.contains(itemId));
+		return isEnabledClueItem(itemId) || (isDeveloperMode && contains(DEV_MODE_ID_SET, itemId));
+	}
+
+	private static boolean isEnabledClueItem(int itemId)
+	{
+		return itemId >= 0 && itemId < ITEM_ID_TIER_MASKS.length && (ITEM_ID_TIER_MASKS[itemId] & enabledTierMask) != 0;
 	}
 
 	public static boolean isBeginnerOrMasterClue(int itemId, boolean isDeveloperMode)
 	{
-		return TRACKED_CLUE_IDS.contains(itemId) || (isDeveloperMode && DEV_MODE_IDS.contains(itemId));
+		return contains(TRACKED_CLUE_ID_SET, itemId) || (isDeveloperMode && contains(DEV_MODE_ID_SET, itemId));
 	}
 
 	public static boolean isTrackedClueOrTornClue(int itemId, boolean isDeveloperMode)
 	{
-		return TRACKED_CLUE_IDS.contains(itemId) || TRACKED_TORN_CLUE_IDS.contains(itemId) || (isDeveloperMode && DEV_MODE_IDS.contains(itemId));
+		return contains(TRACKED_CLUE_ID_SET, itemId) || contains(TRACKED_TORN_CLUE_ID_SET, itemId)
+			|| (isDeveloperMode && contains(DEV_MODE_ID_SET, itemId));
+	}
+
+	public static boolean isDevModeId(int itemId)
+	{
+		return contains(DEV_MODE_ID_SET, itemId);
 	}
 
 	public static Collection<Integer> getTrackedClueAndTornClueIds(boolean isDevMode)
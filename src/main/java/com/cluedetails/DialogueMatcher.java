@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2025, Zoinkwiz <https://github.com/Zoinkwiz>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cluedetails;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Finds which of a set of phrases appears in some dialogue, ignoring case, in a single pass over the text.
+ * <p>
+ * This is an Aho-Corasick automaton with every transition worked out when it's built, so matching only steps through
+ * a table. Where more than one phrase appears, the value of the one given first is found.
+ *
+ * @param <T> the value looked up by each phrase
+ */
+public class DialogueMatcher<T>
+{
+	private final List<T> values;
+	// Every character in the phrases, sorted, giving each a column in the transition table
+	private final char[] alphabet;
+	private final int[] transitions;
+	// The lowest index of a phrase ending at each state, or -1
+	private final int[] matches;
+
+	/**
+	 * @param phrases each phrase and the value it finds, in order of preference
+	 */
+	public DialogueMatcher(Map<String, T> phrases)
+	{
+		values = new ArrayList<>(phrases.values());
+		List<String> keys = new ArrayList<>(phrases.size());
+		TreeSet<Character> characters = new TreeSet<>();
+		int maxStates = 1;
+		for (String phrase : phrases.keySet())
+		{
+			String key = phrase.toLowerCase(Locale.ROOT);
+			keys.add(key);
+			for (char c : key.toCharArray())
+			{
+				characters.add(c);
+			}
+			maxStates += key.length();
+		}
+
+		alphabet = new char[characters.size()];
+		int column = 0;
+		for (char c : characters)
+		{
+			alphabet[column++] = c;
+		}
+
+		int width = alphabet.length;
+		int[] trie = new int[maxStates * width];
+		Arrays.fill(trie, -1);
+		int[] phraseEnds = new int[maxStates];
+		Arrays.fill(phraseEnds, -1);
+
+		int stateCount = 1;
+		for (int i = 0; i < keys.size(); i++)
+		{
+			int state = 0;
+			for (char c : keys.get(i).toCharArray())
+			{
+				int index = state * width + getColumn(c);
+				if (trie[index] == -1)
+				{
+					trie[index] = stateCount++;
+				}
+				state = trie[index];
+			}
+			if (phraseEnds[state] == -1)
+			{
+				phraseEnds[state] = i;
+			}
+		}
+
+		transitions = Arrays.copyOf(trie, stateCount * width);
+		matches = Arrays.copyOf(phraseEnds, stateCount);
+
+		// Fill in each missing transition with where the longest suffix matched so far would go, breadth first so
+		// that every shorter state is done first
+		int[] fallbacks = new int[stateCount];
+		Deque<Integer> queue = new ArrayDeque<>();
+		for (int c = 0; c < width; c++)
+		{
+			int next = transitions[c];
+			if (next == -1)
+			{
+				transitions[c] = 0;
+			}
+			else
+			{
+				queue.add(next);
+			}
+		}
+
+		while (!queue.isEmpty())
+		{
+			int state = queue.poll();
+			int fallback = fallbacks[state];
+			int fallbackMatch = matches[fallback];
+			if (fallbackMatch != -1 && (matches[state] == -1 || fallbackMatch < matches[state]))
+			{
+				matches[state] = fallbackMatch;
+			}
+
+			for (int c = 0; c < width; c++)
+			{
+				int index = state * width + c;
+				int next = transitions[index];
+				if (next == -1)
+				{
+					transitions[index] = transitions[fallback * width + c];
+				}
+				else
+				{
+					fallbacks[next] = transitions[fallback * width + c];
+					queue.add(next);
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return the value of the first given phrase in the text, or null if none are
+	 */
+	public T find(String text)
+	{
+		int width = alphabet.length;
+		int state = 0;
+		int best = -1;
+		for (int i = 0; i < text.length(); i++)
+		{
+			int column = getColumn(Character.toLowerCase(text.charAt(i)));
+			state = column < 0 ? 0 : transitions[state * width + column];
+
+			int match = matches[state];
+			if (match != -1 && (best == -1 || match < best))
+			{
+				best = match;
+				if (best == 0) break;
+			}
+		}
+		return best == -1 ? null : values.get(best);
+	}
+
+	private int getColumn(char c)
+	{
+		int column = Arrays.binarySearch(alphabet, c);
+		return column < 0 ? -1 : column;
+	}
+}
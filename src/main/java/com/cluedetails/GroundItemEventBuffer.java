@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2025, Zoinkwiz <https://github.com/Zoinkwiz>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cluedetails;
+
+import java.util.Arrays;
+import net.runelite.api.Tile;
+import net.runelite.api.TileItem;
+
+/**
+ * Ground item spawns and despawns in the order they were seen, held until they are handled together.
+ * Backed by parallel arrays which are kept between ticks, so recording an event doesn't allocate.
+ */
+class GroundItemEventBuffer
+{
+	private Tile[] tiles = new Tile[64];
+	private TileItem[] items = new TileItem[64];
+	private boolean[] spawns = new boolean[64];
+	// The client tick the event fired on, as the tick count may have moved on by the time it is handled
+	private int[] ticks = new int[64];
+	private int size;
+
+	void add(Tile tile, TileItem item, boolean spawned, int tick)
+	{
+		if (size == tiles.length)
+		{
+			int newSize = size * 2;
+			tiles = Arrays.copyOf(tiles, newSize);
+			items = Arrays.copyOf(items, newSize);
+			spawns = Arrays.copyOf(spawns, newSize);
+			ticks = Arrays.copyOf(ticks, newSize);
+		}
+		tiles[size] = tile;
+		items[size] = item;
+		spawns[size] = spawned;
+		ticks[size] = tick;
+		size++;
+	}
+
+	int size()
+	{
+		return size;
+	}
+
+	Tile getTile(int index)
+	{
+		return tiles[index];
+	}
+
+	TileItem getItem(int index)
+	{
+		return items[index];
+	}
+
+	boolean isSpawn(int index)
+	{
+		return spawns[index];
+	}
+
+	int getTick(int index)
+	{
+		return ticks[index];
+	}
+
+	void clear()
+	{
+		// Don't hold on to tiles from an old scene
+		Arrays.fill(tiles, 0, size, null);
+		Arrays.fill(items, 0, size, null);
+		size = 0;
+	}
+}
@@ -0,0 +1,239 @@
+/*
+ * Copyright (c) 2025, Zoinkwiz <https://github.com/Zoinkwiz>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cluedetails;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Open-addressing hash map from primitive int keys to non-null values, using linear probing
+ * and backward-shift deletion. Lookups neither box the key nor allocate.
+ * The map must not be modified while iterating over its values.
+ */
+class IntObjectHashMap<V> implements Iterable<V>
+{
+	private static final int MIN_CAPACITY = 16;
+
+	private int[] keys;
+	private Object[] values;
+	private int size;
+	private int mask;
+
+	IntObjectHashMap()
+	{
+		this(MIN_CAPACITY);
+	}
+
+	IntObjectHashMap(int expectedSize)
+	{
+		int capacity = MIN_CAPACITY;
+		while (capacity < expectedSize * 2)
+		{
+			capacity <<= 1;
+		}
+		allocate(capacity);
+	}
+
+	@SuppressWarnings("unchecked")
+	V get(int key)
+	{
+		int slot = hash(key) & mask;
+		while (values[slot] != null)
+		{
+			if (keys[slot] == key)
+			{
+				return (V) values[slot];
+			}
+			slot = (slot + 1) & mask;
+		}
+		return null;
+	}
+
+	boolean containsKey(int key)
+	{
+		return get(key) != null;
+	}
+
+	@SuppressWarnings("unchecked")
+	V put(int key, V value)
+	{
+		if (value == null)
+		{
+			throw new IllegalArgumentException("null values are not supported");
+		}
+
+		int slot = hash(key) & mask;
+		while (values[slot] != null)
+		{
+			if (keys[slot] == key)
+			{
+				V previous = (V) values[slot];
+				values[slot] = value;
+				return previous;
+			}
+			slot = (slot + 1) & mask;
+		}
+
+		keys[slot] = key;
+		values[slot] = value;
+		if (++size * 2 > keys.length)
+		{
+			rehash(keys.length << 1);
+		}
+		return null;
+	}
+
+	@SuppressWarnings("unchecked")
+	V remove(int key)
+	{
+		int slot = hash(key) & mask;
+		while (values[slot] != null)
+		{
+			if (keys[slot] == key)
+			{
+				V previous = (V) values[slot];
+				shiftBack(slot);
+				size--;
+				return previous;
+			}
+			slot = (slot + 1) & mask;
+		}
+		return null;
+	}
+
+	int size()
+	{
+		return size;
+	}
+
+	boolean isEmpty()
+	{
+		return size == 0;
+	}
+
+	void clear()
+	{
+		Arrays.fill(values, null);
+		size = 0;
+	}
+
+	@Override
+	public Iterator<V> iterator()
+	{
+		return new Iterator<>()
+		{
+			private int slot = nextOccupied(0);
+
+			@Override
+			public boolean hasNext()
+			{
+				return slot < values.length;
+			}
+
+			@Override
+			@SuppressWarnings("unchecked")
+			public V next()
+			{
+				if (!hasNext())
+				{
+					throw new NoSuchElementException();
+				}
+				V value = (V) values[slot];
+				slot = nextOccupied(slot + 1);
+				return value;
+			}
+		};
+	}
+
+	private int nextOccupied(int from)
+	{
+		int slot = from;
+		while (slot < values.length && values[slot] == null)
+		{
+			slot++;
+		}
+		return slot;
+	}
+
+	// Close the gap left at a removed slot so probe sequences of later entries stay unbroken
+	private void shiftBack(int gap)
+	{
+		int slot = gap;
+		while (true)
+		{
+			slot = (slot + 1) & mask;
+			if (values[slot] == null)
+			{
+				break;
+			}
+
+			int home = hash(keys[slot]) & mask;
+			// Move the entry back if the gap lies between its home slot and where it currently sits
+			boolean movable = gap <= slot
+				? home <= gap || home > slot
+				: home <= gap && home > slot;
+			if (movable)
+			{
+				keys[gap] = keys[slot];
+				values[gap] = values[slot];
+				gap = slot;
+			}
+		}
+		values[gap] = null;
+	}
+
+	private void rehash(int capacity)
+	{
+		int[] oldKeys = keys;
+		Object[] oldValues = values;
+		allocate(capacity);
+		for (int i = 0; i < oldValues.length; i++)
+		{
+			if (oldValues[i] == null) continue;
+
+			int slot = hash(oldKeys[i]) & mask;
+			while (values[slot] != null)
+			{
+				slot = (slot + 1) & mask;
+			}
+			keys[slot] = oldKeys[i];
+			values[slot] = oldValues[i];
+		}
+	}
+
+	private void allocate(int capacity)
+	{
+		keys = new int[capacity];
+		values = new Object[capacity];
+		mask = capacity - 1;
+	}
+
+	private static int hash(int key)
+	{
+		int h = key * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2025, Zoinkwiz <https://github.com/Zoinkwiz>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cluedetails;
+
+import java.util.Iterator;
+import net.runelite.api.coords.WorldPoint;
+
+/**
+ * {@link TileClueStorage} keyed by the tile's coordinates packed into a single int.
+ */
+class PackedTileClueStorage implements TileClueStorage
+{
+	private final IntObjectHashMap<TileClues> tiles = new IntObjectHashMap<>();
+
+	// 14 bits each for x and y, 2 bits for the plane
+	static int pack(int x, int y, int plane)
+	{
+		return ((plane & 0x3) << 28) | ((x & 0x3FFF) << 14) | (y & 0x3FFF);
+	}
+
+	@Override
+	public TileClues get(int x, int y, int plane)
+	{
+		return tiles.get(pack(x, y, plane));
+	}
+
+	@Override
+	public void put(TileClues tile)
+	{
+		WorldPoint wp = tile.getLocation();
+		tiles.put(pack(wp.getX(), wp.getY(), wp.getPlane()), tile);
+	}
+
+	@Override
+	public TileClues remove(WorldPoint wp)
+	{
+		return tiles.remove(pack(wp.getX(), wp.getY(), wp.getPlane()));
+	}
+
+	@Override
+	public int size()
+	{
+		return tiles.size();
+	}
+
+	@Override
+	public void clear()
+	{
+		tiles.clear();
+	}
+
+	@Override
+	public Iterator<TileClues> iterator()
+	{
+		return tiles.iterator();
+	}
+}
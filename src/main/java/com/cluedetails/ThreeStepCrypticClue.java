@@ -54,15 +54,10 @@ public class ThreeStepCrypticClue
 			boolean isDone = part.contains("<str>");
 			final String rawText = Text.sanitizeMultilineText(part);
 
-			for (Clues clue : Clues.CLUES)
+			Clues clue = Clues.forTextUnfiltered(rawText);
+			if (clue != null)
 			{
-				if (!rawText.equalsIgnoreCase(clue.getClueText()))
-				{
-					continue;
-				}
-
 				steps.add(new AbstractMap.SimpleEntry<>(clue, isDone));
-				break;
 			}
 		}
 
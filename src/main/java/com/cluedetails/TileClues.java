@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2025, Zoinkwiz <https://github.com/Zoinkwiz>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cluedetails;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import lombok.Getter;
+import lombok.Setter;
+import net.runelite.api.TileItem;
+import net.runelite.api.coords.WorldPoint;
+
+/**
+ * All clues tracked on a single tile. The beginner/master and easy-elite buckets are
+ * kept alongside a merged view ordered by sequence number, and every mutation updates
+ * the merged view in place rather than rebuilding it.
+ */
+class TileClues
+{
+	@Getter
+	private final WorldPoint location;
+	private final Set<ClueInstance> beginnerAndMaster = new LinkedHashSet<>();
+	private final Set<ClueInstance> easyToElite = new LinkedHashSet<>();
+	@Getter
+	private final SortedSet<ClueInstance> sortedClues;
+	// The last tick the tile was seen in the scene or had its clues change
+	@Getter
+	@Setter
+	private int lastObservedTick;
+
+	// Bumped on every change to the clues, so results derived from them can tell when they're stale
+	private int modCount;
+	private TreeMap<ClueInstance, Integer> cachedQuantities;
+	private int cachedQuantitiesModCount;
+	private int cachedQuantitiesConfigEpoch;
+
+	TileClues(WorldPoint location, Comparator<ClueInstance> clueComparator)
+	{
+		this.location = location;
+		this.sortedClues = new TreeSet<>(clueComparator);
+	}
+
+	boolean add(ClueInstance clueInstance, boolean isBeginnerOrMaster)
+	{
+		if (!bucket(isBeginnerOrMaster).add(clueInstance)) return false;
+
+		sortedClues.add(clueInstance);
+		modCount++;
+		return true;
+	}
+
+	boolean remove(ClueInstance clueInstance, boolean isBeginnerOrMaster)
+	{
+		if (!bucket(isBeginnerOrMaster).remove(clueInstance)) return false;
+
+		sortedClues.remove(clueInstance);
+		modCount++;
+		return true;
+	}
+
+	/**
+	 * Finds the stored clue which {@link ClueInstance#matches matches} the given one, or null if there is none.
+	 */
+	ClueInstance findMatching(ClueInstance clueInstance, boolean isBeginnerOrMaster)
+	{
+		for (ClueInstance storedClue : bucket(isBeginnerOrMaster))
+		{
+			if (storedClue.matches(clueInstance)) return storedClue;
+		}
+		return null;
+	}
+
+	/**
+	 * Re-orders the given stored clues in place. All of them are taken out of the ordering
+	 * before any is re-inserted, so swapping two sequence numbers can never collide.
+	 */
+	void updateSequenceNumbers(Map<ClueInstance, Long> sequenceNumbers)
+	{
+		List<ClueInstance> removedClues = new ArrayList<>(sequenceNumbers.size());
+		for (ClueInstance storedClue : sequenceNumbers.keySet())
+		{
+			if (sortedClues.remove(storedClue))
+			{
+				removedClues.add(storedClue);
+			}
+		}
+
+		sequenceNumbers.forEach(ClueInstance::setSequenceNumber);
+		sortedClues.addAll(removedClues);
+		modCount++;
+	}
+
+	/**
+	 * Gives a stored clue the TileItem now found for it. The despawn tick in the ordering can change with it, so the
+	 * clue is taken out of the ordering first and re-inserted after.
+	 */
+	void setTileItem(ClueInstance storedClue, TileItem tileItem, boolean updateDespawnTick)
+	{
+		boolean wasSorted = sortedClues.remove(storedClue);
+		storedClue.setTileItem(tileItem);
+		if (updateDespawnTick)
+		{
+			storedClue.updateDespawnTick();
+		}
+		if (wasSorted)
+		{
+			sortedClues.add(storedClue);
+		}
+		modCount++;
+	}
+
+	/**
+	 * The clues with quantities last cached for this tile, or null if the clues or the config epoch have changed
+	 * since.
+	 */
+	TreeMap<ClueInstance, Integer> getCachedQuantities(int configEpoch)
+	{
+		if (cachedQuantities == null || cachedQuantitiesModCount != modCount || cachedQuantitiesConfigEpoch != configEpoch)
+		{
+			return null;
+		}
+		return cachedQuantities;
+	}
+
+	void cacheQuantities(TreeMap<ClueInstance, Integer> quantities, int configEpoch)
+	{
+		cachedQuantities = quantities;
+		cachedQuantitiesModCount = modCount;
+		cachedQuantitiesConfigEpoch = configEpoch;
+	}
+
+	Collection<ClueInstance> getBeginnerAndMaster()
+	{
+		return beginnerAndMaster;
+	}
+
+	Collection<ClueInstance> getEasyToElite()
+	{
+		return easyToElite;
+	}
+
+	boolean contains(ClueInstance clueInstance)
+	{
+		return beginnerAndMaster.contains(clueInstance) || easyToElite.contains(clueInstance);
+	}
+
+	int size()
+	{
+		return beginnerAndMaster.size() + easyToElite.size();
+	}
+
+	boolean isEmpty()
+	{
+		return beginnerAndMaster.isEmpty() && easyToElite.isEmpty();
+	}
+
+	private Set<ClueInstance> bucket(boolean isBeginnerOrMaster)
+	{
+		return isBeginnerOrMaster ? beginnerAndMaster : easyToElite;
+	}
+}
@@ -24,10 +24,12 @@
  */
 package com.cluedetails;
 
+import java.util.AbstractSet;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -35,6 +37,7 @@ import java.util.SortedSet;
 import java.util.TreeSet;
 import net.runelite.api.Client;
 import net.runelite.api.Tile;
+import net.runelite.api.TileItem;
 import net.runelite.api.WorldView;
 import net.runelite.api.coords.LocalPoint;
 import net.runelite.api.coords.WorldPoint;
@@ -45,9 +48,21 @@ public class WorldPointToClueInstances
 	private final ClueDetailsPlugin clueDetailsPlugin;
 	private final Comparator<ClueInstance> clueComparator;
 
-	private final Map<WorldPoint, SortedSet<ClueInstance>> cluesByWorldPoint = new HashMap<>();
-	private final Map<WorldPoint, List<ClueInstance>> groundCluesBeginnerAndMaster = new HashMap<>();
-	private final Map<WorldPoint, List<ClueInstance>> groundCluesEasyToElite = new HashMap<>();
+	private final TileClueStorage cluesByWorldPoint = new PackedTileClueStorage();
+	private final Set<WorldPoint> trackedWorldPoints = new TrackedWorldPoints();
+	private final ClueDespawnQueue despawnQueue = new ClueDespawnQueue();
+	// Tracked tiles bucketed by the 8x8 zone they're in, so per-tick sweeps only visit nearby zones
+	private final IntObjectHashMap<Set<WorldPoint>> worldPointsByZone = new IntObjectHashMap<>();
+	private final List<WorldPoint> emptyTiles = new ArrayList<>();
+	private int clueCount;
+	// Map regions whose clues have changed since they were last saved, and since they were last journaled
+	private final Set<Integer> dirtyRegions = new HashSet<>();
+	private final Set<Integer> unjournaledRegions = new HashSet<>();
+
+	private static final int REGION_SIZE = 64;
+
+	// Items only spawn within this many zones of the player
+	private static final int ITEM_SPAWN_ZONE_RADIUS = 3;
 
 	public WorldPointToClueInstances(Client client, ClueDetailsPlugin clueDetailsPlugin)
 	{
@@ -56,174 +71,367 @@ public class WorldPointToClueInstances
 
 		clueComparator = Comparator
 			.comparingLong(ClueInstance::getSequenceNumber)
-			.thenComparingInt(ClueInstance::getDespawnTick);
+			.thenComparingInt(ClueInstance::getDespawnTick)
+			// Re-ordered clues can share a sequence number with another, so never let two clues compare as equal
+			.thenComparingLong(ClueInstance::getInstanceId);
 	}
 
-	private void createGroupedSet(WorldPoint wp)
+	public List<ClueInstance> getAllClues()
 	{
-		if (cluesByWorldPoint.get(wp) != null)
-		{
-			cluesByWorldPoint.get(wp).clear();
-		}
+		SortedSet<ClueInstance> allClues = new TreeSet<>(clueComparator);
 
-		if (groundCluesBeginnerAndMaster.get(wp) != null)
-		{
-			for (ClueInstance clueInstance : groundCluesBeginnerAndMaster.get(wp))
-			{
-				cluesByWorldPoint.computeIfAbsent(wp, k -> new TreeSet<>(clueComparator)).add(clueInstance);
-			}
-		}
+		cluesByWorldPoint.forEach(tile -> allClues.addAll(tile.getSortedClues()));
+		return new ArrayList<>(allClues);
+	}
+
+	public SortedSet<ClueInstance> getAllCluesAtWorldPoint(WorldPoint wp)
+	{
+		return getAllCluesAtWorldPoint(wp.getX(), wp.getY(), wp.getPlane());
+	}
+
+	public SortedSet<ClueInstance> getAllCluesAtWorldPoint(int x, int y, int plane)
+	{
+		TileClues tile = cluesByWorldPoint.get(x, y, plane);
+		if (tile == null) return Collections.emptySortedSet();
+		return tile.getSortedClues();
+	}
+
+	/**
+	 * The clues in a 64x64 map region on every plane, in the same order as {@link #getAllClues()}.
+	 */
+	public List<ClueInstance> getCluesInRegion(int regionId)
+	{
+		SortedSet<ClueInstance> regionClues = new TreeSet<>(clueComparator);
 
-		if (groundCluesEasyToElite.get(wp) != null)
+		int baseZoneX = (regionId >> 8) * REGION_SIZE / Zone.ZONE_SIZE;
+		int baseZoneY = (regionId & 0xFF) * REGION_SIZE / Zone.ZONE_SIZE;
+		for (int zoneX = baseZoneX; zoneX < baseZoneX + REGION_SIZE / Zone.ZONE_SIZE; zoneX++)
 		{
-			for (ClueInstance clueInstance : groundCluesEasyToElite.get(wp))
+			for (int zoneY = baseZoneY; zoneY < baseZoneY + REGION_SIZE / Zone.ZONE_SIZE; zoneY++)
 			{
-				cluesByWorldPoint.computeIfAbsent(wp, k -> new TreeSet<>(clueComparator)).add(clueInstance);
+				Set<WorldPoint> zoneWorldPoints = worldPointsByZone.get(Zone.packedKey(zoneX, zoneY));
+				if (zoneWorldPoints == null) continue;
+
+				for (WorldPoint wp : zoneWorldPoints)
+				{
+					regionClues.addAll(cluesByWorldPoint.get(wp).getSortedClues());
+				}
 			}
 		}
+		return new ArrayList<>(regionClues);
+	}
+
+	public Set<Integer> getDirtyRegions()
+	{
+		return dirtyRegions;
+	}
+
+	public void clearDirtyRegions()
+	{
+		dirtyRegions.clear();
+	}
+
+	/**
+	 * Marks a region as already saved and journaled as it is.
+	 */
+	public void markRegionSaved(int regionId)
+	{
+		dirtyRegions.remove(regionId);
+		unjournaledRegions.remove(regionId);
+	}
+
+	public Set<Integer> getUnjournaledRegions()
+	{
+		return unjournaledRegions;
+	}
 
-		if (cluesByWorldPoint.get(wp) != null && cluesByWorldPoint.get(wp).isEmpty())
+	public void clearUnjournaledRegions()
+	{
+		unjournaledRegions.clear();
+	}
+
+	public Set<Integer> getTrackedRegions()
+	{
+		Set<Integer> regions = new HashSet<>();
+		for (WorldPoint wp : trackedWorldPoints)
 		{
-			cluesByWorldPoint.remove(wp);
+			regions.add(wp.getRegionID());
 		}
+		return regions;
 	}
 
-	public List<ClueInstance> getAllClues()
+	private void markRegionChanged(int regionId)
 	{
-		SortedSet<ClueInstance> allClues = new TreeSet<>(clueComparator);
-
-		cluesByWorldPoint.values().forEach(allClues::addAll);
-		return new ArrayList<>(allClues);
+		dirtyRegions.add(regionId);
+		unjournaledRegions.add(regionId);
 	}
 
-	public SortedSet<ClueInstance> getAllCluesAtWorldPoint(WorldPoint wp)
+	TileClues getTileClues(WorldPoint wp)
 	{
-		return cluesByWorldPoint.getOrDefault(wp, Collections.emptySortedSet());
+		return cluesByWorldPoint.get(wp);
 	}
 
 	public List<ClueInstance> getBeginnerAndMasterCluesAtWorldPoint(WorldPoint wp)
 	{
-		return new ArrayList<>(groundCluesBeginnerAndMaster.getOrDefault(wp, new ArrayList<>()));
+		TileClues tile = cluesByWorldPoint.get(wp);
+		if (tile == null) return new ArrayList<>();
+		return new ArrayList<>(tile.getBeginnerAndMaster());
 	}
 
 	public void addClue(ClueInstance clueInstance)
 	{
-		if (Clues.isBeginnerOrMasterClue(clueInstance.getItemId(), clueDetailsPlugin.isDeveloperMode()))
+		boolean isBeginnerOrMaster = Clues.isBeginnerOrMasterClue(clueInstance.getItemId(), clueDetailsPlugin.isDeveloperMode());
+		if (!isBeginnerOrMaster && !Clues.isClue(clueInstance.getItemId(), clueDetailsPlugin.isDeveloperMode())) return;
+
+		TileClues tile = cluesByWorldPoint.get(clueInstance.getLocation());
+		if (tile == null)
 		{
-			addBeginnerMasterClue(clueInstance);
+			tile = new TileClues(clueInstance.getLocation(), clueComparator);
+			cluesByWorldPoint.put(tile);
+
+			int zoneKey = Zone.packedKey(clueInstance.getLocation());
+			Set<WorldPoint> zoneWorldPoints = worldPointsByZone.get(zoneKey);
+			if (zoneWorldPoints == null)
+			{
+				zoneWorldPoints = new HashSet<>();
+				worldPointsByZone.put(zoneKey, zoneWorldPoints);
+			}
+			zoneWorldPoints.add(clueInstance.getLocation());
 		}
-		else if (Clues.isClue(clueInstance.getItemId(), clueDetailsPlugin.isDeveloperMode()))
+		tile.setLastObservedTick(client.getTickCount());
+		if (tile.add(clueInstance, isBeginnerOrMaster))
 		{
-			addEasyToEliteClue(clueInstance);
+			clueCount++;
+			markRegionChanged(clueInstance.getLocation().getRegionID());
 		}
-
-		createGroupedSet(clueInstance.getLocation());
+		// Only schedules the clue if it isn't already due at its current despawn tick
+		despawnQueue.schedule(clueInstance);
 	}
 
 	public void removeClue(ClueInstance clueInstance)
 	{
-		if (Clues.isBeginnerOrMasterClue(clueInstance.getItemId(), clueDetailsPlugin.isDeveloperMode()))
+		boolean isBeginnerOrMaster = Clues.isBeginnerOrMasterClue(clueInstance.getItemId(), clueDetailsPlugin.isDeveloperMode());
+		if (!isBeginnerOrMaster && !Clues.isClue(clueInstance.getItemId(), clueDetailsPlugin.isDeveloperMode())) return;
+
+		TileClues tile = cluesByWorldPoint.get(clueInstance.getLocation());
+		if (tile == null) return;
+
+		if (!tile.remove(clueInstance, isBeginnerOrMaster)) return;
+
+		clueCount--;
+		markRegionChanged(clueInstance.getLocation().getRegionID());
+		tile.setLastObservedTick(client.getTickCount());
+		if (tile.isEmpty())
 		{
-			removeBeginnerMasterClue(clueInstance);
+			removeTile(clueInstance.getLocation());
 		}
-		else if (Clues.isClue(clueInstance.getItemId(), clueDetailsPlugin.isDeveloperMode()))
+	}
+
+	/**
+	 * Removes the tracked clue which {@link ClueInstance#matches matches} the given one, for when all that is known is
+	 * the item that left the ground.
+	 */
+	public void removeMatchingClue(ClueInstance clueInstance)
+	{
+		boolean isBeginnerOrMaster = Clues.isBeginnerOrMasterClue(clueInstance.getItemId(), clueDetailsPlugin.isDeveloperMode());
+		TileClues tile = cluesByWorldPoint.get(clueInstance.getLocation());
+		if (tile == null) return;
+
+		ClueInstance storedClue = tile.findMatching(clueInstance, isBeginnerOrMaster);
+		if (storedClue != null)
 		{
-			removeEasyToEliteClue(clueInstance);
+			removeClue(storedClue);
 		}
-
-		createGroupedSet(clueInstance.getLocation());
 	}
 
-	private void addBeginnerMasterClue(ClueInstance clue)
+	private void removeTile(WorldPoint wp)
 	{
-		groundCluesBeginnerAndMaster.computeIfAbsent(clue.getLocation(), k -> new ArrayList<>()).add(clue);
+		TileClues tile = cluesByWorldPoint.get(wp);
+		if (tile == null) return;
+		clueCount -= tile.size();
+		markRegionChanged(wp.getRegionID());
+		cluesByWorldPoint.remove(wp);
+
+		int zoneKey = Zone.packedKey(wp);
+		Set<WorldPoint> zoneWorldPoints = worldPointsByZone.get(zoneKey);
+		if (zoneWorldPoints == null) return;
+		zoneWorldPoints.remove(wp);
+		if (zoneWorldPoints.isEmpty())
+		{
+			worldPointsByZone.remove(zoneKey);
+		}
 	}
 
-	private void addEasyToEliteClue(ClueInstance clueInstance)
+	/**
+	 * Moves tracked clues on a tile to new positions in its ordering without rebuilding the tile.
+	 */
+	public void updateSequenceNumbers(WorldPoint wp, Map<ClueInstance, Long> sequenceNumbers)
 	{
-		groundCluesEasyToElite.computeIfAbsent(clueInstance.getLocation(), k -> new ArrayList<>()).add(clueInstance);
+		TileClues tile = cluesByWorldPoint.get(wp);
+		if (tile == null) return;
+		tile.updateSequenceNumbers(sequenceNumbers);
+		markRegionChanged(wp.getRegionID());
 	}
 
-	private void removeBeginnerMasterClue(ClueInstance clueInstance)
+	/**
+	 * Gives a clue the TileItem now found for it, keeping its tile's ordering intact if the clue is tracked.
+	 */
+	public void setTileItem(ClueInstance clueInstance, TileItem tileItem, boolean updateDespawnTick)
 	{
-		List<ClueInstance> list = groundCluesBeginnerAndMaster.get(clueInstance.getLocation());
-		if (list != null)
+		TileClues tile = cluesByWorldPoint.get(clueInstance.getLocation());
+		if (tile != null && tile.contains(clueInstance))
 		{
-			list.remove(clueInstance);
-			if (list.isEmpty())
-			{
-				groundCluesBeginnerAndMaster.remove(clueInstance.getLocation());
-			}
+			tile.setTileItem(clueInstance, tileItem, updateDespawnTick);
+			despawnQueue.schedule(clueInstance);
+			return;
 		}
-	}
 
-	private void removeEasyToEliteClue(ClueInstance clueInstance)
-	{
-		List<ClueInstance> list = groundCluesEasyToElite.get(clueInstance.getLocation());
-		if (list != null)
+		clueInstance.setTileItem(tileItem);
+		if (updateDespawnTick)
 		{
-			list.remove(clueInstance);
-
-			if (groundCluesEasyToElite.get(clueInstance.getLocation()) != null && groundCluesEasyToElite.get(clueInstance.getLocation()).isEmpty())
-			{
-				groundCluesEasyToElite.remove(clueInstance.getLocation());
-			}
+			clueInstance.updateDespawnTick();
 		}
 	}
 
 	public void clearEasyToEliteCluesAtWorldPoint(WorldPoint wp)
 	{
-		List<ClueInstance> clues = groundCluesEasyToElite.get(wp);
-		if (clues == null) return;
-		new ArrayList<>(clues).forEach(this::removeClue);
+		TileClues tile = cluesByWorldPoint.get(wp);
+		if (tile == null) return;
+		new ArrayList<>(tile.getEasyToElite()).forEach(this::removeClue);
 	}
 
 	public void clearBeginnerAndMasterCluesAtWorldPoint(WorldPoint wp)
 	{
-		List<ClueInstance> clues = groundCluesBeginnerAndMaster.get(wp);
-		if (clues == null) return;
-		new ArrayList<>(clues).forEach(this::removeClue);
+		TileClues tile = cluesByWorldPoint.get(wp);
+		if (tile == null) return;
+		new ArrayList<>(tile.getBeginnerAndMaster()).forEach(this::removeClue);
 	}
 
 	public void clearEmptyTiles(Zone currentZone)
 	{
-		for (ClueInstance clueInstance : getAllClues())
+		// Item won't have potentially spawned if too far, so only look at zones near the player
+		for (int zoneX = currentZone.getX() - ITEM_SPAWN_ZONE_RADIUS; zoneX <= currentZone.getX() + ITEM_SPAWN_ZONE_RADIUS; zoneX++)
 		{
-			Tile tile = getTileAtWorldPoint(clueInstance.getLocation());
-			if (tile == null) continue;
-
-			Zone clueZone = new Zone(tile.getWorldLocation());
-			// Item won't have potentially spawned if too far, so don't remove
-			int zonesDistance = clueZone.maxDistanceTo(currentZone);
-			if (zonesDistance >= 4) continue;
-			if (tile.getGroundItems() == null || tile.getGroundItems().isEmpty())
+			for (int zoneY = currentZone.getY() - ITEM_SPAWN_ZONE_RADIUS; zoneY <= currentZone.getY() + ITEM_SPAWN_ZONE_RADIUS; zoneY++)
 			{
-				removeClue(clueInstance);
+				Set<WorldPoint> zoneWorldPoints = worldPointsByZone.get(Zone.packedKey(zoneX, zoneY));
+				if (zoneWorldPoints == null) continue;
+
+				for (WorldPoint wp : zoneWorldPoints)
+				{
+					Tile tile = getTileAtWorldPoint(wp);
+					if (tile == null) continue;
+					if (tile.getGroundItems() == null || tile.getGroundItems().isEmpty())
+					{
+						emptyTiles.add(wp);
+					}
+					else
+					{
+						cluesByWorldPoint.get(wp).setLastObservedTick(client.getTickCount());
+					}
+				}
 			}
 		}
+
+		for (WorldPoint wp : emptyTiles)
+		{
+			removeTile(wp);
+		}
+		emptyTiles.clear();
 	}
 
 	public void clearAllClues()
 	{
-		groundCluesEasyToElite.clear();
-		groundCluesBeginnerAndMaster.clear();
 		cluesByWorldPoint.clear();
+		worldPointsByZone.clear();
+		despawnQueue.clear();
+		clueCount = 0;
+		dirtyRegions.clear();
+		unjournaledRegions.clear();
+	}
+
+	/**
+	 * Drops the tiles observed longest ago once either limit is exceeded. Tiles are dropped until both counts are
+	 * back down to 90% of their limit, so that this doesn't run again on the next clue added.
+	 *
+	 * @param maxClues the most clues to track, or 0 for no limit
+	 * @param maxTiles the most tiles to track, or 0 for no limit
+	 * @return the number of clues dropped
+	 */
+	public int evictLeastRecentlyObserved(int maxClues, int maxTiles)
+	{
+		boolean overClueLimit = maxClues > 0 && clueCount > maxClues;
+		boolean overTileLimit = maxTiles > 0 && cluesByWorldPoint.size() > maxTiles;
+		if (!overClueLimit && !overTileLimit) return 0;
+
+		int targetClues = maxClues > 0 ? maxClues * 9 / 10 : Integer.MAX_VALUE;
+		int targetTiles = maxTiles > 0 ? maxTiles * 9 / 10 : Integer.MAX_VALUE;
+
+		List<TileClues> tiles = new ArrayList<>(cluesByWorldPoint.size());
+		for (TileClues tile : cluesByWorldPoint)
+		{
+			tiles.add(tile);
+		}
+		tiles.sort(Comparator.comparingInt(TileClues::getLastObservedTick));
+
+		int evictedClues = 0;
+		for (TileClues tile : tiles)
+		{
+			if (clueCount <= targetClues && cluesByWorldPoint.size() <= targetTiles) break;
+			evictedClues += tile.size();
+			removeTile(tile.getLocation());
+		}
+		return evictedClues;
+	}
+
+	public int getClueCount()
+	{
+		return clueCount;
+	}
+
+	public int getTileCount()
+	{
+		return cluesByWorldPoint.size();
 	}
 
 	public void removeDespawnedClues()
 	{
-		for (ClueInstance clueInstance : getAllClues())
+		int currentTick = client.getTickCount();
+		ClueInstance clueInstance;
+		while ((clueInstance = despawnQueue.pollDue(currentTick)) != null)
 		{
-			if (clueInstance.getDespawnTick() <= client.getTickCount())
+			if (!isTracked(clueInstance)) continue;
+
+			if (clueInstance.getDespawnTick() <= currentTick)
 			{
 				removeClue(clueInstance);
 			}
+			else
+			{
+				// Its despawn tick has moved since it was scheduled
+				despawnQueue.schedule(clueInstance);
+			}
 		}
 	}
 
+	private boolean isTracked(ClueInstance clueInstance)
+	{
+		TileClues tile = cluesByWorldPoint.get(clueInstance.getLocation());
+		return tile != null && tile.contains(clueInstance);
+	}
+
+	/**
+	 * Live, read-only view of the tracked WorldPoints. Membership checks go through the packed
+	 * tile storage, so they don't hash the WorldPoint.
+	 */
 	public Set<WorldPoint> getAllTrackedWorldPoints()
 	{
-		return cluesByWorldPoint.keySet();
+		return trackedWorldPoints;
+	}
+
+	public boolean isTracked(int x, int y, int plane)
+	{
+		return cluesByWorldPoint.get(x, y, plane) != null;
 	}
 
 	public Tile getTileAtWorldPoint(WorldPoint tileWp)
@@ -236,4 +444,40 @@ public class WorldPointToClueInstances
 		}
 		return worldView.getScene().getTiles()[tileWp.getPlane()][tileLp.getSceneX()][tileLp.getSceneY()];
 	}
+
+	private class TrackedWorldPoints extends AbstractSet<WorldPoint>
+	{
+		@Override
+		public Iterator<WorldPoint> iterator()
+		{
+			Iterator<TileClues> tiles = cluesByWorldPoint.iterator();
+			return new Iterator<>()
+			{
+				@Override
+				public boolean hasNext()
+				{
+					return tiles.hasNext();
+				}
+
+				@Override
+				public WorldPoint next()
+				{
+					return tiles.next().getLocation();
+				}
+			};
+		}
+
+		@Override
+		public boolean contains(Object o)
+		{
+			if (!(o instanceof WorldPoint)) return false;
+			return cluesByWorldPoint.get((WorldPoint) o) != null;
+		}
+
+		@Override
+		public int size()
+		{
+			return cluesByWorldPoint.size();
+		}
+	}
 }
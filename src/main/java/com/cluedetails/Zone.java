@@ -24,17 +24,32 @@
  */
 package com.cluedetails;
 
+import lombok.Getter;
 import net.runelite.api.coords.WorldPoint;
 
+@Getter
 public class Zone
 {
+	public static final int ZONE_SIZE = 8;
+
+
 	private final int x;
 	private final int y;
 
 	public Zone(WorldPoint wp)
 	{
-		x = wp.getX() / 8;
-		y = wp.getY() / 8;
+		x = wp.getX() / ZONE_SIZE;
+		y = wp.getY() / ZONE_SIZE;
+	}
+
+	public static int packedKey(int zoneX, int zoneY)
+	{
+		return (zoneX << 16) | (zoneY & 0xFFFF);
+	}
+
+	public static int packedKey(WorldPoint wp)
+	{
+		return packedKey(wp.getX() / ZONE_SIZE, wp.getY() / ZONE_SIZE);
 	}
 
 	public int maxDistanceTo(Zone zone)
@@ -31,7 +31,8 @@ public abstract class AbstractRequirement
 {
 	List<WorldPoint> wps;
 
-	List<ClueRegion> regions;
+	// Bitmask of the regions by ClueRegion ordinal, or -1 until worked out
+	volatile int regionMask = -1;
 
 	abstract public boolean isRegionValid(ClueRegion clueRegionToCheck);
 }
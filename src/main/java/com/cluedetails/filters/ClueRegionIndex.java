@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2025, Zoinkwiz <https://github.com/Zoinkwiz>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cluedetails.filters;
+
+import net.runelite.api.coords.WorldPoint;
+
+/**
+ * Finds which {@link ClueRegion}s a world point is in from a grid of map regions, built once from the regions' zones.
+ * Each map region holds a bitmask of the clue regions covering all of it, by {@link ClueRegion#ordinal()}, and of those
+ * covering only part of it. Only the zones of the second kind need checking against the point.
+ */
+public class ClueRegionIndex
+{
+	private static final ClueRegion[] REGIONS = ClueRegion.values();
+	private static final int MAP_REGION_SIZE = 64;
+	// A zone only covers a whole map region if it covers every plane a point is looked up on
+	private static final int MAX_FULL_PLANE = 2;
+
+	private static final int minMapRegionX;
+	private static final int minMapRegionY;
+	private static final int width;
+	private static final int height;
+	private static final int[] fullRegionMasks;
+	private static final int[] partialRegionMasks;
+
+	static
+	{
+		int minX = Integer.MAX_VALUE;
+		int minY = Integer.MAX_VALUE;
+		int maxX = Integer.MIN_VALUE;
+		int maxY = Integer.MIN_VALUE;
+		for (ClueRegion region : REGIONS)
+		{
+			for (Zone zone : region.getZones())
+			{
+				minX = Math.min(minX, zone.getMinX() / MAP_REGION_SIZE);
+				minY = Math.min(minY, zone.getMinY() / MAP_REGION_SIZE);
+				maxX = Math.max(maxX, zone.getMaxX() / MAP_REGION_SIZE);
+				maxY = Math.max(maxY, zone.getMaxY() / MAP_REGION_SIZE);
+			}
+		}
+
+		minMapRegionX = minX;
+		minMapRegionY = minY;
+		width = maxX - minX + 1;
+		height = maxY - minY + 1;
+		fullRegionMasks = new int[width * height];
+		partialRegionMasks = new int[width * height];
+
+		for (ClueRegion region : REGIONS)
+		{
+			int bit = 1 << region.ordinal();
+			for (Zone zone : region.getZones())
+			{
+				for (int x = zone.getMinX() / MAP_REGION_SIZE; x <= zone.getMaxX() / MAP_REGION_SIZE; x++)
+				{
+					for (int y = zone.getMinY() / MAP_REGION_SIZE; y <= zone.getMaxY() / MAP_REGION_SIZE; y++)
+					{
+						int cell = (x - minMapRegionX) * height + (y - minMapRegionY);
+						if (coversMapRegion(zone, x, y))
+						{
+							fullRegionMasks[cell] |= bit;
+						}
+						else
+						{
+							partialRegionMasks[cell] |= bit;
+						}
+					}
+				}
+			}
+		}
+
+		for (int cell = 0; cell < partialRegionMasks.length; cell++)
+		{
+			partialRegionMasks[cell] &= ~fullRegionMasks[cell];
+		}
+	}
+
+	private static boolean coversMapRegion(Zone zone, int mapRegionX, int mapRegionY)
+	{
+		int x = mapRegionX * MAP_REGION_SIZE;
+		int y = mapRegionY * MAP_REGION_SIZE;
+		return zone.getMinX() <= x && x + MAP_REGION_SIZE - 1 <= zone.getMaxX()
+			&& zone.getMinY() <= y && y + MAP_REGION_SIZE - 1 <= zone.getMaxY()
+			&& zone.getMinPlane() == 0 && MAX_FULL_PLANE <= zone.getMaxPlane();
+	}
+
+	/**
+	 * @return a bitmask of the clue regions the point is in, by {@link ClueRegion#ordinal()}
+	 */
+	public static int getRegionMask(WorldPoint worldPoint)
+	{
+		int x = (worldPoint.getX() >> 6) - minMapRegionX;
+		int y = (worldPoint.getY() >> 6) - minMapRegionY;
+		if (x < 0 || x >= width || y < 0 || y >= height) return 0;
+
+		int cell = x * height + y;
+		int mask = worldPoint.getPlane() <= MAX_FULL_PLANE ? fullRegionMasks[cell] : 0;
+		int candidates = (partialRegionMasks[cell] | fullRegionMasks[cell]) & ~mask;
+		while (candidates != 0)
+		{
+			int ordinal = Integer.numberOfTrailingZeros(candidates);
+			candidates &= candidates - 1;
+			for (Zone zone : REGIONS[ordinal].getZones())
+			{
+				if (zone.contains(worldPoint))
+				{
+					mask |= 1 << ordinal;
+					break;
+				}
+			}
+		}
+		return mask;
+	}
+}
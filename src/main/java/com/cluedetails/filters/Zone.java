@@ -39,7 +39,9 @@ public class Zone
 	private final int minY;
 	@Getter
 	private final int maxY;
+	@Getter
 	private int minPlane = 0;
+	@Getter
 	private int maxPlane = 2;
 
 	//The first plane of the "Overworld"
@@ -0,0 +1,119 @@
+package com.cluedetails;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.google.gson.Gson;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+public class ClueInstanceCodecTest
+{
+	private final Gson gson = new Gson();
+	private final ClueInstanceCodec codec = new ClueInstanceCodec(gson);
+
+	@Test
+	public void roundTripKeepsEveryClue()
+	{
+		Random random = new Random(12);
+		for (int round = 0; round < 200; round++)
+		{
+			List<ClueInstanceData> clues = randomClues(random, random.nextInt(300));
+			List<ClueInstanceData> decoded = new ArrayList<>();
+
+			assertEquals(0, codec.decode(codec.encode(clues), decoded::add));
+			assertEquals(sorted(clues), sorted(decoded));
+		}
+	}
+
+	@Test
+	public void roundTripsNoClues()
+	{
+		List<ClueInstanceData> decoded = new ArrayList<>();
+
+		assertEquals(0, codec.decode(codec.encode(Collections.emptyList()), decoded::add));
+		assertTrue(decoded.isEmpty());
+	}
+
+	@Test
+	public void readsOldJsonSaves()
+	{
+		List<ClueInstanceData> clues = randomClues(new Random(3), 50);
+		List<ClueInstanceData> decoded = new ArrayList<>();
+
+		assertEquals(0, codec.decode(gson.toJson(clues), decoded::add));
+		assertEquals(clues, decoded);
+	}
+
+	@Test
+	public void skipsUnreadableJsonElements()
+	{
+		ClueInstanceData first = new ClueInstanceData(Arrays.asList(1, 2), 2677, 500, 3200, 3200, 0);
+		ClueInstanceData second = new ClueInstanceData(Collections.singletonList(7), 2801, 900, 3100, 3500, 1);
+		String json = "[" + gson.toJson(first) + ",\"not a clue\"," + gson.toJson(second) + "]";
+		List<ClueInstanceData> decoded = new ArrayList<>();
+
+		assertEquals(1, codec.decode(json, decoded::add));
+		assertEquals(Arrays.asList(first, second), decoded);
+	}
+
+	@Test
+	public void truncatedValueOnlyGivesSavedClues()
+	{
+		List<ClueInstanceData> clues = randomClues(new Random(7), 40);
+		byte[] encoded = Base64.getDecoder().decode(codec.encode(clues));
+		for (int length = 0; length < encoded.length; length++)
+		{
+			String truncated = Base64.getEncoder().encodeToString(Arrays.copyOf(encoded, length));
+			List<ClueInstanceData> decoded = new ArrayList<>();
+			try
+			{
+				int skipped = codec.decode(truncated, decoded::add);
+				assertTrue(skipped > 0);
+			}
+			catch (IllegalArgumentException err)
+			{
+				// Too little left to read anything
+			}
+			assertTrue(clues.containsAll(decoded));
+		}
+	}
+
+	private static List<ClueInstanceData> randomClues(Random random, int count)
+	{
+		List<ClueInstanceData> clues = new ArrayList<>(count);
+		// Clues are mostly stacked on a few tiles, as they are on the ground
+		int tiles = Math.max(1, count / 8);
+		int[][] tileLocations = new int[tiles][];
+		for (int i = 0; i < tiles; i++)
+		{
+			tileLocations[i] = new int[]{ 1000 + random.nextInt(3000), 2000 + random.nextInt(8000), random.nextInt(4) };
+		}
+		for (int i = 0; i < count; i++)
+		{
+			int[] location = tileLocations[random.nextInt(tiles)];
+			List<Integer> clueIds = new ArrayList<>();
+			int clueIdCount = random.nextInt(4);
+			for (int j = 0; j < clueIdCount; j++)
+			{
+				clueIds.add(random.nextInt(30000));
+			}
+			clues.add(new ClueInstanceData(clueIds, 2677 + random.nextInt(25000), random.nextInt(100000),
+				location[0], location[1], location[2]));
+		}
+		return clues;
+	}
+
+	private static List<ClueInstanceData> sorted(List<ClueInstanceData> clues)
+	{
+		List<ClueInstanceData> sorted = new ArrayList<>(clues);
+		sorted.sort(Comparator.comparing(ClueInstanceData::toString));
+		return sorted;
+	}
+}
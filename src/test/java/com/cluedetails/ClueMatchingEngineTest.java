@@ -0,0 +1,187 @@
+package com.cluedetails;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import org.junit.Test;
+
+public class ClueMatchingEngineTest
+{
+	private static final int NO_LIMIT = Integer.MAX_VALUE;
+
+	@Test
+	public void keepsIdentitiesWhenClueTakenFromMiddleOfStack()
+	{
+		ClueMatchingEngine engine = new ClueMatchingEngine();
+		int[] storedTimes = {1000, 1010, 1020, 1030, 1040, 1050};
+		for (int storedTime : storedTimes)
+		{
+			engine.addStored(storedTime, NO_LIMIT);
+		}
+		// Reloaded 500 ticks later with the third clue picked up
+		int[] groundTimes = {500, 510, 530, 540, 550};
+		for (int groundTime : groundTimes)
+		{
+			engine.addGround(groundTime);
+		}
+
+		assertEquals(5, engine.solve());
+		assertEquals(0, engine.getMatch(0));
+		assertEquals(1, engine.getMatch(1));
+		assertEquals(-1, engine.getMatch(2));
+		assertEquals(2, engine.getMatch(3));
+		assertEquals(3, engine.getMatch(4));
+		assertEquals(4, engine.getMatch(5));
+	}
+
+	@Test
+	public void needsTwoPairsToAgreeOnAnOffset()
+	{
+		ClueMatchingEngine engine = new ClueMatchingEngine();
+		engine.addStored(1000, NO_LIMIT);
+		engine.addStored(2000, NO_LIMIT);
+		engine.addGround(700);
+		engine.addGround(1800);
+
+		assertEquals(0, engine.solve());
+		assertEquals(-1, engine.getMatch(0));
+		assertEquals(-1, engine.getMatch(1));
+	}
+
+	@Test
+	public void neverPairsGroundItemDespawningAfterLimit()
+	{
+		ClueMatchingEngine engine = new ClueMatchingEngine();
+		engine.addStored(100, 100);
+		engine.addGround(101);
+
+		assertEquals(0, engine.solve());
+		assertEquals(-1, engine.getMatch(0));
+	}
+
+	@Test
+	public void matchesAsManyAsBestOffsetReference()
+	{
+		Random random = new Random(5);
+		ClueMatchingEngine engine = new ClueMatchingEngine();
+		for (int round = 0; round < 20000; round++)
+		{
+			int storedCount = random.nextInt(14);
+			int groundCount = random.nextInt(14);
+			int range = 1 + random.nextInt(40);
+			int shift = random.nextInt(range);
+
+			int[] storedTimes = new int[storedCount];
+			int[] storedLimits = new int[storedCount];
+			int[] groundTimes = new int[groundCount];
+			for (int i = 0; i < storedCount; i++)
+			{
+				storedTimes[i] = random.nextInt(range);
+				storedLimits[i] = random.nextInt(4) == 0 ? storedTimes[i] - shift + random.nextInt(3) - 1 : NO_LIMIT;
+			}
+			for (int i = 0; i < groundCount; i++)
+			{
+				// Mostly survivors of the stored stack, with some unrelated items
+				groundTimes[i] = storedCount > 0 && random.nextInt(4) != 0
+					? storedTimes[random.nextInt(storedCount)] - shift
+					: random.nextInt(range) - shift;
+			}
+
+			engine.reset();
+			for (int i = 0; i < storedCount; i++)
+			{
+				engine.addStored(storedTimes[i], storedLimits[i]);
+			}
+			for (int i = 0; i < groundCount; i++)
+			{
+				engine.addGround(groundTimes[i]);
+			}
+
+			String stack = Arrays.toString(storedTimes) + " " + Arrays.toString(storedLimits) + " " + Arrays.toString(groundTimes);
+			int matches = engine.solve();
+			assertEquals(stack, referenceMatches(storedTimes, storedLimits, groundTimes), matches);
+			assertValidMatches(engine, storedTimes, storedLimits, groundTimes, matches, stack);
+		}
+	}
+
+	private static void assertValidMatches(ClueMatchingEngine engine, int[] storedTimes, int[] storedLimits, int[] groundTimes,
+		int matches, String stack)
+	{
+		Set<Integer> usedGround = new HashSet<>();
+		Set<Long> offsets = new HashSet<>();
+		int paired = 0;
+		for (int s = 0; s < storedTimes.length; s++)
+		{
+			int g = engine.getMatch(s);
+			if (g == -1) continue;
+
+			paired++;
+			assertTrue(stack, usedGround.add(g));
+			assertTrue(stack, groundTimes[g] <= storedLimits[s]);
+			offsets.add((long) storedTimes[s] - groundTimes[g]);
+		}
+		assertEquals(stack, matches, paired);
+		assertTrue(stack, offsets.size() <= 1 || storedTimes.length == 1);
+	}
+
+	/**
+	 * The most pairs any one offset makes, found by augmenting paths, or 0 if that's below two. A lone stored clue
+	 * and ground item are paired whenever the limit allows.
+	 */
+	private static int referenceMatches(int[] storedTimes, int[] storedLimits, int[] groundTimes)
+	{
+		if (storedTimes.length == 1 && groundTimes.length == 1)
+		{
+			return groundTimes[0] <= storedLimits[0] ? 1 : 0;
+		}
+
+		Set<Long> offsets = new HashSet<>();
+		for (int storedTime : storedTimes)
+		{
+			for (int groundTime : groundTimes)
+			{
+				offsets.add((long) storedTime - groundTime);
+			}
+		}
+
+		int best = 0;
+		for (long offset : offsets)
+		{
+			int[] groundMatch = new int[groundTimes.length];
+			Arrays.fill(groundMatch, -1);
+			int matches = 0;
+			for (int s = 0; s < storedTimes.length; s++)
+			{
+				if (augment(s, offset, storedTimes, storedLimits, groundTimes, groundMatch, new boolean[groundTimes.length]))
+				{
+					matches++;
+				}
+			}
+			best = Math.max(best, matches);
+		}
+		return best >= 2 ? best : 0;
+	}
+
+	private static boolean augment(int s, long offset, int[] storedTimes, int[] storedLimits, int[] groundTimes,
+		int[] groundMatch, boolean[] visited)
+	{
+		for (int g = 0; g < groundTimes.length; g++)
+		{
+			if (visited[g] || (long) storedTimes[s] - groundTimes[g] != offset || groundTimes[g] > storedLimits[s])
+			{
+				continue;
+			}
+			visited[g] = true;
+			if (groundMatch[g] == -1 || augment(groundMatch[g], offset, storedTimes, storedLimits, groundTimes, groundMatch, visited))
+			{
+				groundMatch[g] = s;
+				return true;
+			}
+		}
+		return false;
+	}
+}
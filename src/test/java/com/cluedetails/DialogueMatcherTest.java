@@ -0,0 +1,83 @@
+package com.cluedetails;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Test;
+
+public class DialogueMatcherTest
+{
+	@Test
+	public void findsPhraseIgnoringCase()
+	{
+		Map<String, String> phrases = new LinkedHashMap<>();
+		phrases.put("Raw Herring", "herring");
+		phrases.put("Iron Dagger", "dagger");
+		DialogueMatcher<String> matcher = new DialogueMatcher<>(phrases);
+
+		assertEquals("dagger", matcher.find("I need an IRON dagger, please."));
+		assertEquals("herring", matcher.find("Bring me a raw herring"));
+		assertNull(matcher.find("Nothing to see here"));
+		assertNull(matcher.find(""));
+	}
+
+	@Test
+	public void prefersPhraseGivenFirst()
+	{
+		Map<String, Integer> phrases = new LinkedHashMap<>();
+		phrases.put("dagger", 0);
+		phrases.put("iron dagger", 1);
+		DialogueMatcher<Integer> matcher = new DialogueMatcher<>(phrases);
+
+		assertEquals(Integer.valueOf(0), matcher.find("an iron dagger"));
+	}
+
+	@Test
+	public void agreesWithContainsOnRandomText()
+	{
+		Random random = new Random(19);
+		for (int round = 0; round < 20000; round++)
+		{
+			// A tiny alphabet gives plenty of overlapping phrases
+			Map<String, Integer> phrases = new LinkedHashMap<>();
+			int phraseCount = 1 + random.nextInt(6);
+			for (int i = 0; i < phraseCount; i++)
+			{
+				phrases.putIfAbsent(randomText(random, 1 + random.nextInt(4), 'a', 3), i);
+			}
+			DialogueMatcher<Integer> matcher = new DialogueMatcher<>(phrases);
+
+			StringBuilder text = new StringBuilder();
+			int length = random.nextInt(12);
+			for (int i = 0; i < length; i++)
+			{
+				text.append((char) ((random.nextBoolean() ? 'a' : 'A') + random.nextInt(4)));
+			}
+
+			Integer expected = null;
+			for (Map.Entry<String, Integer> phrase : phrases.entrySet())
+			{
+				if (text.toString().toLowerCase(Locale.ROOT).contains(phrase.getKey()))
+				{
+					expected = phrase.getValue();
+					break;
+				}
+			}
+			assertEquals(phrases + " in " + text, expected, matcher.find(text.toString()));
+		}
+	}
+
+	private static String randomText(Random random, int length, char first, int letters)
+	{
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; i < length; i++)
+		{
+			text.append((char) (first + random.nextInt(letters)));
+		}
+		return text.toString();
+	}
+}
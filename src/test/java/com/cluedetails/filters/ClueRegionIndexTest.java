@@ -0,0 +1,62 @@
+package com.cluedetails.filters;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+import net.runelite.api.coords.WorldPoint;
+import org.junit.Test;
+
+public class ClueRegionIndexTest
+{
+	@Test
+	public void agreesWithZoneScan()
+	{
+		Random random = new Random(23);
+		for (int i = 0; i < 200000; i++)
+		{
+			WorldPoint worldPoint = new WorldPoint(1000 + random.nextInt(3000), 2400 + random.nextInt(7000), random.nextInt(4));
+			assertEquals(worldPoint.toString(), scanRegionMask(worldPoint), ClueRegionIndex.getRegionMask(worldPoint));
+		}
+	}
+
+	@Test
+	public void checksZoneEdges()
+	{
+		for (ClueRegion clueRegion : ClueRegion.values())
+		{
+			for (Zone zone : clueRegion.getZones())
+			{
+				for (int plane = zone.getMinPlane(); plane <= zone.getMaxPlane(); plane++)
+				{
+					for (int dx = -1; dx <= 1; dx++)
+					{
+						for (int dy = -1; dy <= 1; dy++)
+						{
+							WorldPoint corner = new WorldPoint(zone.getMinX() + dx, zone.getMinY() + dy, plane);
+							assertEquals(corner.toString(), scanRegionMask(corner), ClueRegionIndex.getRegionMask(corner));
+							corner = new WorldPoint(zone.getMaxX() + dx, zone.getMaxY() + dy, plane);
+							assertEquals(corner.toString(), scanRegionMask(corner), ClueRegionIndex.getRegionMask(corner));
+						}
+					}
+				}
+			}
+		}
+	}
+
+	private static int scanRegionMask(WorldPoint worldPoint)
+	{
+		int mask = 0;
+		for (ClueRegion clueRegion : ClueRegion.values())
+		{
+			for (Zone zone : clueRegion.getZones())
+			{
+				if (zone.contains(worldPoint))
+				{
+					mask |= 1 << clueRegion.ordinal();
+					break;
+				}
+			}
+		}
+		return mask;
+	}
+}